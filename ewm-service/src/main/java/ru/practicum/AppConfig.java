@@ -1,23 +1,90 @@
 package ru.practicum;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.stats.embedded.EmbeddedStatsConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Value("${stats.server.url:http://localhost:9090}")
     private String statsServerUrl;
 
+    @Value("${stats.client.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${stats.client.hedging.budget-percent:5}")
+    private double hedgingBudgetPercent;
+
+    @Value("${stats.client.spool.enabled:false}")
+    private boolean spoolEnabled;
+
+    @Value("${stats.client.spool.path:}")
+    private String spoolPath;
+
+    @Value("${stats.client.spool.capacity-mb:16}")
+    private int spoolCapacityMb;
+
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
 
     @Bean
-    public StatsClient statsClient(RestTemplate restTemplate) {
-        return new StatsClient(restTemplate, statsServerUrl);
+    @ConditionalOnProperty(name = "stats.client.mode", havingValue = "remote", matchIfMissing = true)
+    public StatsClient statsClient(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.builder()
+                .percentile(hedgingPercentile)
+                .budgetPercent(hedgingBudgetPercent)
+                .build();
+
+        HitSpool spool = null;
+        if (spoolEnabled) {
+            spool = openSpool();
+            Gauge.builder("stats.client.spool.depth", spool, HitSpool::depth)
+                    .description("Hits waiting for delivery to stats-server")
+                    .register(meterRegistry);
+            TimeGauge.builder("stats.client.spool.lag", spool, TimeUnit.MILLISECONDS, HitSpool::lagMillis)
+                    .description("Age of the oldest undelivered hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.spool.dropped", spool, HitSpool::dropped)
+                    .description("Hits evicted from the full spool")
+                    .register(meterRegistry);
+        }
+        return new HttpStatsClient(restTemplate, statsServerUrl, hedgingPolicy, spool);
+    }
+
+    // Файл очереди задаётся явно: по умолчанию он оказался бы в рабочем каталоге процесса
+    private HitSpool openSpool() {
+        if (spoolPath == null || spoolPath.isBlank()) {
+            throw new IllegalStateException("stats.client.spool.path must be set when stats.client.spool.enabled=true");
+        }
+        Path path = Path.of(spoolPath).toAbsolutePath();
+        try {
+            return new HitSpool(path, spoolCapacityMb * 1024 * 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Stats spool file " + path + " is not writable: " + e, e);
+        }
+    }
+
+    // Встроенный режим: статистика хранится в базе основного сервиса и считается без HTTP
+    @Configuration
+    @ConditionalOnProperty(name = "stats.client.mode", havingValue = "embedded")
+    @Import(EmbeddedStatsConfiguration.class)
+    static class EmbeddedStatsConfig {
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,31 @@
 package ru.practicum;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import ru.practicum.model.Event;
+import ru.practicum.repository.EventRepository;
 
-@SpringBootApplication
+/**
+ * Классы stats-core (пакет ru.practicum.stats) лежат на classpath ради встроенного режима статистики,
+ * поэтому исключаются из сканирования и подключаются только через EmbeddedStatsConfiguration.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "ru\\.practicum\\.stats\\..*")})
+@EntityScan(basePackageClasses = Event.class)
+@EnableJpaRepositories(basePackageClasses = EventRepository.class)
 public class EwmServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(EwmServiceApplication.class, args);
     }
-}
\ No newline at end of file
+}
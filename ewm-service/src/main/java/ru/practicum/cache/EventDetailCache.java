@@ -0,0 +1,161 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.EventFullDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Кэш карточек опубликованных событий для GET /events/{id} (ewm.cache.event-details.enabled).
+ * Карточка хранится до изменения события или его заявок; просмотры в ней обновляются
+ * отдельно раз в views-ttl, и пока один запрос их перечитывает, остальные получают прежнее значение.
+ * Одновременные промахи по одному id ждут одной загрузки. Неизвестные и неопубликованные id
+ * запоминаются на missing-ttl, чтобы поток запросов к несуществующим событиям не доходил до базы.
+ */
+@Slf4j
+@Component
+public class EventDetailCache {
+
+    private final boolean enabled;
+    private final long viewsTtlNanos;
+    private final long missingTtlNanos;
+    private final LruCache<Long, Entry> events;
+    // Время (System.nanoTime), до которого id считается отсутствующим
+    private final LruCache<Long, Long> missing;
+    // Текущие загрузки; сброс удаляет загрузку, и её результат в кэш уже не попадает
+    private final ConcurrentMap<Long, CompletableFuture<EventFullDto>> loads = new ConcurrentHashMap<>();
+
+    public EventDetailCache(MeterRegistry meterRegistry,
+                            @Value("${ewm.cache.event-details.enabled:false}") boolean enabled,
+                            @Value("${ewm.cache.event-details.max-size:10000}") int maxSize,
+                            @Value("${ewm.cache.event-details.views-ttl:5s}") Duration viewsTtl,
+                            @Value("${ewm.cache.event-details.missing-ttl:30s}") Duration missingTtl) {
+        this.enabled = enabled;
+        this.viewsTtlNanos = viewsTtl.toNanos();
+        this.missingTtlNanos = missingTtl.toNanos();
+        this.events = new LruCache<Long, Entry>(maxSize).registerMetrics(meterRegistry, "event-details");
+        this.missing = new LruCache<Long, Long>(maxSize).registerMetrics(meterRegistry, "event-details-missing");
+    }
+
+    /**
+     * Карточка события или пустой результат, если опубликованного события с таким id нет.
+     *
+     * @param loader загружает карточку с просмотрами, для отсутствующего события возвращает null
+     * @param viewsLoader перечитывает просмотры для карточки
+     */
+    public Optional<EventFullDto> get(Long eventId, Function<Long, EventFullDto> loader,
+                                      Function<EventFullDto, Long> viewsLoader) {
+        if (!enabled) {
+            return Optional.ofNullable(loader.apply(eventId));
+        }
+        Entry entry = events.get(eventId);
+        if (entry != null) {
+            return Optional.of(refreshViews(eventId, entry, viewsLoader).dto);
+        }
+        Long missingUntil = missing.get(eventId);
+        if (missingUntil != null && missingUntil - System.nanoTime() > 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(load(eventId, loader));
+    }
+
+    /**
+     * Сбрасывает карточку события после фиксации текущей транзакции.
+     */
+    public void invalidate(Long eventId) {
+        if (enabled) {
+            AfterCommit.run(() -> {
+                loads.remove(eventId);
+                events.remove(eventId);
+                missing.remove(eventId);
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает все карточки, например после переименования категории.
+     */
+    public void invalidateAll() {
+        if (enabled) {
+            AfterCommit.run(() -> {
+                loads.clear();
+                events.clear();
+                missing.clear();
+            });
+        }
+    }
+
+    private EventFullDto load(Long eventId, Function<Long, EventFullDto> loader) {
+        CompletableFuture<EventFullDto> own = new CompletableFuture<>();
+        CompletableFuture<EventFullDto> current = loads.putIfAbsent(eventId, own);
+        if (current != null) {
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        EventFullDto dto;
+        try {
+            dto = loader.apply(eventId);
+        } catch (RuntimeException e) {
+            loads.remove(eventId, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+        // Установка атомарна относительно сброса: загрузка, сброшенная во время чтения из базы, не сохраняется
+        loads.computeIfPresent(eventId, (id, load) -> {
+            if (load != own) {
+                return load;
+            }
+            if (dto != null) {
+                events.put(id, new Entry(dto, System.nanoTime()));
+            } else {
+                missing.put(id, System.nanoTime() + missingTtlNanos);
+            }
+            return null;
+        });
+        own.complete(dto);
+        return dto;
+    }
+
+    private Entry refreshViews(Long eventId, Entry entry, Function<EventFullDto, Long> viewsLoader) {
+        if (System.nanoTime() - entry.viewsLoadedAt < viewsTtlNanos || !entry.refreshing.compareAndSet(false, true)) {
+            return entry;
+        }
+        try {
+            Long views = viewsLoader.apply(entry.dto);
+            Entry refreshed = new Entry(entry.dto.toBuilder().views(views).build(), System.nanoTime());
+            // Если карточку сбросили, пока шёл запрос к статистике, обновлённая не сохраняется
+            events.replace(eventId, entry, refreshed);
+            return refreshed;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh views of event {}: {}", eventId, e.getMessage());
+            return entry;
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static class Entry {
+        private final EventFullDto dto;
+        private final long viewsLoadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(EventFullDto dto, long viewsLoadedAt) {
+            this.dto = dto;
+            this.viewsLoadedAt = viewsLoadedAt;
+        }
+    }
+}
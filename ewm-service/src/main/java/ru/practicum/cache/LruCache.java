@@ -0,0 +1,92 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасный кэш ограниченного размера с вытеснением давно не использованных записей.
+ * Считает попадания и промахи; {@link #registerMetrics} публикует их как ewm.cache.gets{cache, result}.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Заменяет значение, только если по ключу всё ещё лежит expected (сравнение по ссылке).
+     */
+    public synchronized boolean replace(K key, V expected, V value) {
+        if (entries.get(key) != expected) {
+            return false;
+        }
+        entries.put(key, value);
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public LruCache<K, V> registerMetrics(MeterRegistry registry, String name) {
+        FunctionCounter.builder("ewm.cache.gets", this, LruCache::hits)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("ewm.cache.gets", this, LruCache::misses)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        Gauge.builder("ewm.cache.size", this, LruCache::size)
+                .tag("cache", name)
+                .register(registry);
+        return this;
+    }
+}
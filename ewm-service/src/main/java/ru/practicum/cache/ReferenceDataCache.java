@@ -0,0 +1,144 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.model.Category;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Справочные данные для построения DTO без обращения к базе.
+ * Категорий мало и меняются они редко: в памяти держится неизменяемый снимок всех категорий,
+ * который после фиксации изменения сбрасывается и при следующем чтении загружается заново целиком.
+ * Краткие данные пользователей (id и имя) хранятся в LRU-кэше ограниченного размера.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final LruCache<Long, UserShortDto> users;
+
+    private volatile CategorySnapshot categories;
+    // Снимок, загруженный до сброса, не устанавливается: иначе он вернул бы устаревшие данные
+    private final AtomicLong categoriesVersion = new AtomicLong();
+    private final LongAdder categoryHits = new LongAdder();
+    private final LongAdder categoryLoads = new LongAdder();
+
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${ewm.cache.users.max-size:10000}") int usersMaxSize) {
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.users = new LruCache<Long, UserShortDto>(usersMaxSize).registerMetrics(meterRegistry, "users");
+        FunctionCounter.builder("ewm.cache.gets", categoryHits, LongAdder::sum)
+                .tag("cache", "categories").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("ewm.cache.gets", categoryLoads, LongAdder::sum)
+                .tag("cache", "categories").tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Optional<CategoryDto> getCategory(Long id) {
+        return Optional.ofNullable(categories().byId.get(id));
+    }
+
+    /**
+     * Страница категорий в порядке id.
+     */
+    public List<CategoryDto> getCategories(int from, int size) {
+        List<CategoryDto> all = categories().ordered;
+        int start = Math.min(from, all.size());
+        return all.subList(start, Math.min(all.size(), start + size));
+    }
+
+    public void onCategoriesChanged() {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                categoriesVersion.incrementAndGet();
+                categories = null;
+            }
+        });
+    }
+
+    public UserShortDto getUser(Long id) {
+        return getUsers(List.of(id)).get(id);
+    }
+
+    /**
+     * Краткие данные пользователей; отсутствующие в кэше загружаются одним запросом.
+     */
+    public Map<Long, UserShortDto> getUsers(Collection<Long> ids) {
+        Map<Long, UserShortDto> result = new HashMap<>();
+        List<Long> missing = ids.stream()
+                .distinct()
+                .filter(id -> {
+                    UserShortDto user = users.get(id);
+                    if (user != null) {
+                        result.put(id, user);
+                    }
+                    return user == null;
+                })
+                .toList();
+        if (!missing.isEmpty()) {
+            userRepository.findAllById(missing).forEach(user -> {
+                UserShortDto dto = UserShortDto.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .build();
+                users.put(user.getId(), dto);
+                result.put(user.getId(), dto);
+            });
+        }
+        return result;
+    }
+
+    public void onUserDeleted(Long id) {
+        AfterCommit.run(() -> users.remove(id));
+    }
+
+    private CategorySnapshot categories() {
+        CategorySnapshot snapshot = categories;
+        if (snapshot != null) {
+            categoryHits.increment();
+            return snapshot;
+        }
+        categoryLoads.increment();
+        long version = categoriesVersion.get();
+        Map<Long, CategoryDto> byId = new LinkedHashMap<>();
+        for (Category category : categoryRepository.findAll(Sort.by("id"))) {
+            byId.put(category.getId(), CategoryDto.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .build());
+        }
+        snapshot = new CategorySnapshot(Map.copyOf(byId), List.copyOf(byId.values()));
+        synchronized (this) {
+            if (categoriesVersion.get() == version) {
+                categories = snapshot;
+            }
+        }
+        log.debug("Category snapshot loaded: {} categories", byId.size());
+        return snapshot;
+    }
+
+    private record CategorySnapshot(Map<Long, CategoryDto> byId, List<CategoryDto> ordered) {
+    }
+}
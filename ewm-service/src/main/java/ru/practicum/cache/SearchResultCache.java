@@ -0,0 +1,98 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.CursorPage;
+import ru.practicum.dto.EventShortDto;
+import ru.practicum.dto.PublicEventSearchRequest;
+import ru.practicum.model.TextSearchMode;
+import ru.practicum.repository.EventCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц публичного поиска событий (ewm.cache.search.enabled).
+ * Ключ - нормализованный запрос: одинаковые по смыслу запросы (регистр текста, порядок категорий,
+ * пустые фильтры) попадают в одну запись. Запись живёт ttl и действительна, пока не сменилось поколение:
+ * оно увеличивается после фиксации любого изменения опубликованных событий.
+ * Подтверждённые заявки и просмотры в выдаче могут отставать не больше чем на ttl.
+ */
+@Component
+public class SearchResultCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final LruCache<Key, Entry> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${ewm.cache.search.enabled:false}") boolean enabled,
+                             @Value("${ewm.cache.search.max-size:1000}") int maxSize,
+                             @Value("${ewm.cache.search.ttl:2s}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.pages = new LruCache<Key, Entry>(maxSize).registerMetrics(meterRegistry, "search");
+    }
+
+    public CursorPage<EventShortDto> get(PublicEventSearchRequest request, Supplier<CursorPage<EventShortDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = Key.of(request);
+        Entry entry = pages.get(key);
+        if (entry != null && entry.generation == generation.get() && entry.expiresAt - System.nanoTime() > 0) {
+            return entry.page;
+        }
+        // Поколение берётся до поиска: если события изменятся во время него, запись сразу окажется устаревшей
+        long current = generation.get();
+        CursorPage<EventShortDto> page = loader.get();
+        pages.put(key, new Entry(page, current, System.nanoTime() + ttlNanos));
+        return page;
+    }
+
+    /**
+     * Вызывается в транзакции, изменившей опубликованные события или их отображаемые данные.
+     */
+    public void onEventsChanged() {
+        if (enabled) {
+            AfterCommit.run(() -> {
+                generation.incrementAndGet();
+                pages.clear();
+            });
+        }
+    }
+
+    private record Entry(CursorPage<EventShortDto> page, long generation, long expiresAt) {
+    }
+
+    private record Key(String text, TextSearchMode textMode, List<Long> categories, Boolean paid,
+                       LocalDateTime rangeStart, LocalDateTime rangeEnd, boolean onlyAvailable,
+                       EventCursor.Order order, int from, int size, String cursor) {
+
+        // Поиск по тексту не зависит от регистра, а пустой текст и пустой список категорий не фильтруют
+        static Key of(PublicEventSearchRequest request) {
+            String text = request.getText() != null && !request.getText().isBlank()
+                    ? request.getText().toLowerCase()
+                    : null;
+            List<Long> categories = request.getCategories() != null && !request.getCategories().isEmpty()
+                    ? request.getCategories().stream().distinct().sorted().toList()
+                    : null;
+            return new Key(text,
+                    text != null ? request.getTextMode() : null,
+                    categories,
+                    request.getPaid(),
+                    request.getRangeStart(),
+                    request.getRangeEnd(),
+                    Boolean.TRUE.equals(request.getOnlyAvailable()),
+                    request.getOrder(),
+                    request.getCursor() != null ? 0 : request.getFrom(),
+                    request.getSize(),
+                    request.getCursor());
+        }
+    }
+}
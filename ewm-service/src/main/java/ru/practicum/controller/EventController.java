@@ -2,11 +2,11 @@ package ru.practicum.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.*;
+import ru.practicum.model.TextSearchMode;
 import ru.practicum.service.EventService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,18 +25,20 @@ public class EventController {
     private final EventService eventService;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     // ADMIN endpoints
     @GetMapping("/admin/events")
-    public List<EventFullDto> getEvents(@RequestParam(required = false) List<Long> users,
-                                        @RequestParam(required = false) List<String> states,
-                                        @RequestParam(required = false) List<Long> categories,
-                                        @RequestParam(required = false) String rangeStart,
-                                        @RequestParam(required = false) String rangeEnd,
-                                        @RequestParam(defaultValue = "0") int from,
-                                        @RequestParam(defaultValue = "10") int size) {
-        log.info("Admin: поиск событий users={}, states={}, categories={}, rangeStart={}, rangeEnd={}, from={}, size={}",
-                users, states, categories, rangeStart, rangeEnd, from, size);
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(required = false) List<Long> users,
+                                                        @RequestParam(required = false) List<String> states,
+                                                        @RequestParam(required = false) List<Long> categories,
+                                                        @RequestParam(required = false) String rangeStart,
+                                                        @RequestParam(required = false) String rangeEnd,
+                                                        @RequestParam(defaultValue = "0") int from,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Admin: поиск событий users={}, states={}, categories={}, rangeStart={}, rangeEnd={}, from={}, size={}, cursor={}",
+                users, states, categories, rangeStart, rangeEnd, from, size, cursor);
 
         LocalDateTime start = parseDateTime(rangeStart);
         LocalDateTime end = parseDateTime(rangeEnd);
@@ -49,9 +51,10 @@ public class EventController {
                 .rangeEnd(end)
                 .from(from)
                 .size(size)
+                .cursor(cursor)
                 .build();
 
-        return eventService.getAdminEvents(searchRequest);
+        return withNextCursor(eventService.getAdminEvents(searchRequest));
     }
 
     @PatchMapping("/admin/events/{eventId}")
@@ -63,12 +66,12 @@ public class EventController {
 
     // PRIVATE endpoints
     @GetMapping("/users/{userId}/events")
-    public List<EventShortDto> getUserEvents(@PathVariable Long userId,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
-        log.info("Private: получение событий пользователя с id={}, from={}, size={}", userId, from, size);
-        Pageable pageable = PageRequest.of(from / size, size);
-        return eventService.getUserEvents(userId, pageable);
+    public ResponseEntity<List<EventShortDto>> getUserEvents(@PathVariable Long userId,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
+        log.info("Private: получение событий пользователя с id={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        return withNextCursor(eventService.getUserEvents(userId, from, size, cursor));
     }
 
     @PostMapping("/users/{userId}/events")
@@ -108,18 +111,20 @@ public class EventController {
 
     // PUBLIC endpoints
     @GetMapping("/events")
-    public List<EventShortDto> getEvents(@RequestParam(required = false) String text,
-                                         @RequestParam(required = false) List<Long> categories,
-                                         @RequestParam(required = false) Boolean paid,
-                                         @RequestParam(required = false) String rangeStart,
-                                         @RequestParam(required = false) String rangeEnd,
-                                         @RequestParam(defaultValue = "false") Boolean onlyAvailable,
-                                         @RequestParam(required = false) String sort,
-                                         @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size,
-                                         HttpServletRequest request) {
-        log.info("Public: поиск событий text={}, categories={}, paid={}, rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}",
-                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+    public ResponseEntity<List<EventShortDto>> getEvents(@RequestParam(required = false) String text,
+                                                         @RequestParam(required = false) String textMode,
+                                                         @RequestParam(required = false) List<Long> categories,
+                                                         @RequestParam(required = false) Boolean paid,
+                                                         @RequestParam(required = false) String rangeStart,
+                                                         @RequestParam(required = false) String rangeEnd,
+                                                         @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                                         @RequestParam(required = false) String sort,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(required = false) String cursor,
+                                                         HttpServletRequest request) {
+        log.info("Public: поиск событий text={}, textMode={}, categories={}, paid={}, rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}, cursor={}",
+                text, textMode, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, cursor);
 
         LocalDateTime start = parseDateTime(rangeStart);
         LocalDateTime end = parseDateTime(rangeEnd);
@@ -130,6 +135,7 @@ public class EventController {
 
         PublicEventSearchRequest searchRequest = PublicEventSearchRequest.builder()
                 .text(text)
+                .textMode(TextSearchMode.from(textMode))
                 .categories(categories)
                 .paid(paid)
                 .rangeStart(start)
@@ -138,9 +144,10 @@ public class EventController {
                 .sort(sort)
                 .from(from)
                 .size(size)
+                .cursor(cursor)
                 .build();
 
-        return eventService.getPublicEvents(searchRequest, request);
+        return withNextCursor(eventService.getPublicEvents(searchRequest, request));
     }
 
     @GetMapping("/events/{id}")
@@ -150,6 +157,15 @@ public class EventController {
         return eventService.getPublicEventById(id, request);
     }
 
+    // Тело ответа остаётся списком, курсор следующей страницы передаётся заголовком
+    private static <T> ResponseEntity<List<T>> withNextCursor(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+
     private LocalDateTime parseDateTime(String dateTimeString) {
         if (dateTimeString == null) {
             return null;
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.*;
+import ru.practicum.registration.RegistrationPipeline;
 import ru.practicum.service.RequestService;
 
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import java.util.List;
 public class RequestController {
 
     private final RequestService requestService;
+    private final RegistrationPipeline registrationPipeline;
 
     // PRIVATE endpoints
     @GetMapping("/users/{userId}/events/{eventId}/requests")
@@ -52,7 +54,7 @@ public class RequestController {
     public ParticipationRequestDto createRequest(@PathVariable Long userId,
                                                  @RequestParam Long eventId) {
         log.info("Private: создание запроса на участие пользователем с id={} в событии с id={}", userId, eventId);
-        return requestService.createRequest(userId, eventId);
+        return registrationPipeline.createRequest(userId, eventId);
     }
 
     @PatchMapping("/users/{userId}/requests/{requestId}/cancel")
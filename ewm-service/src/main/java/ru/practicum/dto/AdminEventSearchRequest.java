@@ -4,8 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.repository.EventCursor;
+import ru.practicum.repository.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,7 +28,14 @@ public class AdminEventSearchRequest {
     @Builder.Default
     private Integer size = 10;
 
+    // Курсор следующей страницы из заголовка X-Next-Cursor предыдущего ответа; при нём from не используется
+    private String cursor;
+
     public Pageable getPageable() {
-        return PageRequest.of(from / size, size);
+        return new OffsetPageRequest(cursor != null ? 0 : from, size, EventCursor.Order.ID.getSort());
+    }
+
+    public EventCursor getAfter() {
+        return cursor != null ? EventCursor.decode(cursor, EventCursor.Order.ID) : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница списка и курсор следующей страницы (null, если страница последняя
+ * или порядок выдачи не поддерживает курсор). Курсор отдаётся клиенту в заголовке X-Next-Cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+}
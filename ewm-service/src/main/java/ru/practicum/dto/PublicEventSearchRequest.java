@@ -4,8 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.model.TextSearchMode;
+import ru.practicum.repository.EventCursor;
+import ru.practicum.repository.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,6 +19,10 @@ import java.util.List;
 @AllArgsConstructor
 public class PublicEventSearchRequest {
     private String text;
+
+    @Builder.Default
+    private TextSearchMode textMode = TextSearchMode.SUBSTRING;
+
     private List<Long> categories;
     private Boolean paid;
     private LocalDateTime rangeStart;
@@ -29,7 +36,39 @@ public class PublicEventSearchRequest {
     @Builder.Default
     private Integer size = 10;
 
+    // Курсор следующей страницы из заголовка X-Next-Cursor предыдущего ответа; при нём from не используется
+    private String cursor;
+
     public Pageable getPageable() {
-        return PageRequest.of(from / size, size);
+        EventCursor.Order order = getOrder();
+        return new OffsetPageRequest(cursor != null ? 0 : from, size, order != null ? order.getSort() : Sort.unsorted());
+    }
+
+    /**
+     * Порядок выдачи, сортировка выполняется в базе: VIEWS - по поддерживаемой колонке events.views.
+     * null - полнотекстовый поиск без явной сортировки, выдача по релевантности (курсор не поддерживается).
+     */
+    public EventCursor.Order getOrder() {
+        if ("VIEWS".equals(sort)) {
+            return EventCursor.Order.VIEWS;
+        }
+        if ("EVENT_DATE".equals(sort)) {
+            return EventCursor.Order.EVENT_DATE;
+        }
+        if (textMode == TextSearchMode.FULLTEXT && text != null && !text.isBlank()) {
+            return null;
+        }
+        return EventCursor.Order.ID;
+    }
+
+    public EventCursor getAfter() {
+        if (cursor == null) {
+            return null;
+        }
+        EventCursor.Order order = getOrder();
+        if (order == null) {
+            throw new IllegalArgumentException("Cursor pagination is not supported for full-text relevance order");
+        }
+        return EventCursor.decode(cursor, order);
     }
 }
\ No newline at end of file
@@ -24,7 +24,8 @@ public class Event {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
-    @Column(name = "confirmed_requests")
+    // Меняется только запросами EventRepository.addConfirmedRequests, сохранение сущности его не перезаписывает
+    @Column(name = "confirmed_requests", updatable = false)
     private Integer confirmedRequests = 0;
 
     @Column(name = "created_on")
@@ -65,4 +66,9 @@ public class Event {
     @Column(name = "title", nullable = false, length = 120)
     private String title;
 
+    // Уникальные просмотры из stats-server, обновляются фоновой синхронизацией (EventViewsSync)
+    @Builder.Default
+    @Column(name = "views", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long views = 0L;
+
 }
\ No newline at end of file
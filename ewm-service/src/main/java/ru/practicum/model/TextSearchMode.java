@@ -0,0 +1,22 @@
+package ru.practicum.model;
+
+/**
+ * Режим поиска по тексту в публичном поиске событий.
+ * SUBSTRING - подстрока без учёта регистра в аннотации или описании (поведение по умолчанию),
+ * FULLTEXT - поиск по словам с ранжированием (только PostgreSQL, на других базах - как SUBSTRING).
+ */
+public enum TextSearchMode {
+    SUBSTRING,
+    FULLTEXT;
+
+    public static TextSearchMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return SUBSTRING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown textMode: " + value);
+        }
+    }
+}
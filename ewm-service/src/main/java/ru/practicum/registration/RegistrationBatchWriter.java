@@ -0,0 +1,139 @@
+package ru.practicum.registration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.EventDetailCache;
+import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.ParticipationRequest;
+import ru.practicum.model.RequestStatus;
+import ru.practicum.model.User;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.ParticipationRequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.search.EventSearchEngine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Запись группы заявок на одно событие одной транзакцией.
+ * Проверки те же, что в RequestServiceImpl.createRequest, но выполняются для всей группы
+ * несколькими запросами, а места занимаются одним условным UPDATE счётчика события.
+ */
+@Component
+@RequiredArgsConstructor
+class RegistrationBatchWriter {
+
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final ParticipationRequestRepository requestRepository;
+    private final EventSearchEngine eventSearchEngine;
+    private final EventDetailCache eventDetailCache;
+
+    /**
+     * Результаты в порядке userIds. Ошибка отдельной заявки возвращается в её результате;
+     * исключение означает, что группа не записана и заявки нужно обработать по одной.
+     */
+    @Transactional
+    public List<Outcome> write(Long eventId, List<Long> userIds) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            NotFoundException error = new NotFoundException("Событие с id=" + eventId + " не найдено");
+            return userIds.stream().map(userId -> Outcome.failed(error)).toList();
+        }
+
+        Map<Long, User> users = userRepository.findAllById(new HashSet<>(userIds)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<Long> requested = users.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(requestRepository.findRequesterIds(eventId, users.keySet()));
+
+        boolean autoConfirm = !event.getRequestModeration() || event.getParticipantLimit() == 0;
+        // Свободные места по счётчику в базе; заявки группы занимают их по порядку поступления
+        long remaining = event.getParticipantLimit() == 0
+                ? Long.MAX_VALUE
+                : event.getParticipantLimit() - eventRepository.findConfirmedRequests(eventId);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Outcome> outcomes = new ArrayList<>(userIds.size());
+        List<ParticipationRequest> admitted = new ArrayList<>();
+        int confirmed = 0;
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            RuntimeException error = null;
+            if (user == null) {
+                error = new NotFoundException("Пользователь с id=" + userId + " не найден");
+            } else if (event.getInitiator().getId().equals(userId)) {
+                error = new ConflictException("Инициатор события не может подать заявку на участие в своём событии");
+            } else if (event.getState() != EventState.PUBLISHED) {
+                error = new ConflictException("Нельзя участвовать в неопубликованном событии");
+            } else if (!requested.add(userId)) {
+                error = new ConflictException("Нельзя добавить повторный запрос");
+            } else if (remaining <= 0) {
+                error = new ConflictException("Достигнут лимит запросов на участие");
+            }
+            if (error != null) {
+                outcomes.add(Outcome.failed(error));
+                continue;
+            }
+
+            RequestStatus status = RequestStatus.PENDING;
+            if (autoConfirm) {
+                status = RequestStatus.CONFIRMED;
+                remaining--;
+                confirmed++;
+            }
+            ParticipationRequest request = ParticipationRequest.builder()
+                    .requester(user)
+                    .event(event)
+                    .created(now)
+                    .status(status)
+                    .build();
+            admitted.add(request);
+            outcomes.add(new Outcome(request, null));
+        }
+
+        // Места могли занять в обход очереди: тогда группа откатывается и заявки проходят по одной
+        if (confirmed > 0 && eventRepository.addConfirmedRequests(eventId, confirmed) == 0) {
+            throw new IllegalStateException("Participant limit of event " + eventId + " changed during batch");
+        }
+        requestRepository.saveAll(admitted);
+        eventSearchEngine.onConfirmedRequestsChanged(eventId, confirmed);
+        if (confirmed > 0) {
+            eventDetailCache.invalidate(eventId);
+        }
+        return outcomes;
+    }
+
+    @Value
+    static class Outcome {
+        ParticipationRequest request;
+        RuntimeException error;
+
+        static Outcome failed(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+
+        ParticipationRequestDto toDto() {
+            return ParticipationRequestDto.builder()
+                    .id(request.getId())
+                    .requester(request.getRequester().getId())
+                    .event(request.getEvent().getId())
+                    .created(request.getCreated())
+                    .status(request.getStatus())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.registration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.service.RequestService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Очередь регистрации на популярные события (ewm.registration.pipeline.enabled).
+ * Пока на событие одновременно приходит меньше hot-threshold заявок, они создаются как обычно.
+ * Когда порог достигнут, заявки события выстраиваются в очередь одного секвенсора: он забирает их группами
+ * до batch-size, допускает по порядку поступления по числу свободных мест и записывает группу одной транзакцией,
+ * после чего завершает ответы всех вызывающих. Так вместо тысяч транзакций, спорящих за строку события,
+ * выполняется несколько групповых. Секвенсор удаляется, как только его очередь опустела.
+ */
+@Slf4j
+@Component
+public class RegistrationPipeline {
+
+    private final RequestService requestService;
+    private final RegistrationBatchWriter batchWriter;
+    private final boolean enabled;
+    private final int hotThreshold;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final Timer batchTimer;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Sequencer> sequencers = new ConcurrentHashMap<>();
+
+    public RegistrationPipeline(RequestService requestService,
+                                RegistrationBatchWriter batchWriter,
+                                MeterRegistry meterRegistry,
+                                @Value("${ewm.registration.pipeline.enabled:false}") boolean enabled,
+                                @Value("${ewm.registration.pipeline.hot-threshold:8}") int hotThreshold,
+                                @Value("${ewm.registration.pipeline.batch-size:100}") int batchSize,
+                                @Value("${ewm.registration.pipeline.threads:4}") int threads) {
+        this.requestService = requestService;
+        this.batchWriter = batchWriter;
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        this.batchSize = batchSize;
+        this.executor = enabled ? Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "registration-sequencer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.batchTimer = Timer.builder("ewm.registration.batch")
+                .description("Group transactions of the registration pipeline")
+                .register(meterRegistry);
+    }
+
+    public ParticipationRequestDto createRequest(Long userId, Long eventId) {
+        if (!enabled) {
+            return requestService.createRequest(userId, eventId);
+        }
+        AtomicInteger counter = inFlight.computeIfAbsent(eventId, id -> new AtomicInteger());
+        try {
+            if (counter.incrementAndGet() < hotThreshold && !sequencers.containsKey(eventId)) {
+                return requestService.createRequest(userId, eventId);
+            }
+            return enqueue(userId, eventId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            if (counter.decrementAndGet() == 0) {
+                inFlight.remove(eventId, counter);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<ParticipationRequestDto> enqueue(Long userId, Long eventId) {
+        Pending pending = new Pending(userId, new CompletableFuture<>());
+        // Добавление и удаление секвенсора идут под блокировкой ключа, поэтому заявка не попадёт в удалённую очередь
+        Sequencer sequencer = sequencers.compute(eventId, (id, current) -> {
+            Sequencer target = current != null ? current : new Sequencer(id);
+            target.queue.add(pending);
+            return target;
+        });
+        sequencer.schedule();
+        return pending.result;
+    }
+
+    private void drain(Sequencer sequencer) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Pending next;
+        while (batch.size() < batchSize && (next = sequencer.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (!batch.isEmpty()) {
+            batchTimer.record(() -> write(sequencer.eventId, batch));
+        }
+
+        sequencer.scheduled.set(false);
+        Sequencer remaining = sequencers.computeIfPresent(sequencer.eventId,
+                (id, current) -> current == sequencer && current.queue.isEmpty() ? null : current);
+        if (remaining == sequencer) {
+            sequencer.schedule();
+        }
+    }
+
+    private void write(Long eventId, List<Pending> batch) {
+        List<RegistrationBatchWriter.Outcome> outcomes;
+        try {
+            outcomes = batchWriter.write(eventId, batch.stream().map(Pending::getUserId).toList());
+        } catch (RuntimeException e) {
+            // Группа не записалась (например, места заняли в обход очереди) - заявки проходят обычным путём
+            log.warn("Registration batch of {} requests for event {} failed, falling back to single requests: {}",
+                    batch.size(), eventId, e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    pending.result.complete(requestService.createRequest(pending.userId, eventId));
+                } catch (RuntimeException error) {
+                    pending.result.completeExceptionally(error);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            RegistrationBatchWriter.Outcome outcome = outcomes.get(i);
+            if (outcome.getError() != null) {
+                batch.get(i).result.completeExceptionally(outcome.getError());
+            } else {
+                batch.get(i).result.complete(outcome.toDto());
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class Pending {
+        Long userId;
+        CompletableFuture<ParticipationRequestDto> result;
+    }
+
+    private class Sequencer {
+        private final Long eventId;
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        // Секвенсор обрабатывается не более чем одним потоком, этим и задаётся порядок допуска
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Sequencer(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(() -> drain(this));
+            }
+        }
+    }
+}
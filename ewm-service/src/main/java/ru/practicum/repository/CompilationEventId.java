@@ -0,0 +1,12 @@
+package ru.practicum.repository;
+
+import lombok.Value;
+
+/**
+ * Связь подборки с событием: строка таблицы compilation_events без загрузки сущностей.
+ */
+@Value
+public class CompilationEventId {
+    Long compilationId;
+    Long eventId;
+}
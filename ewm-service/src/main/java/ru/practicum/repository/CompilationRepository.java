@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.model.Compilation;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,20 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
     @Query("SELECT c FROM Compilation c JOIN c.events e WHERE e.id = :eventId")
     List<Compilation> findByEventId(@Param("eventId") Long eventId);
 
+    /**
+     * Страница подборок без запроса общего количества
+     */
+    List<Compilation> findAllBy(Pageable pageable);
+
+    List<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+
+    /**
+     * Идентификаторы событий сразу нескольких подборок одним запросом, в порядке id события
+     */
+    @Query("SELECT new ru.practicum.repository.CompilationEventId(c.id, e.id) FROM Compilation c JOIN c.events e " +
+            "WHERE c.id IN :compilationIds ORDER BY e.id")
+    List<CompilationEventId> findEventIds(@Param("compilationIds") Collection<Long> compilationIds);
+
     /**
      * Найти подборки по списку ID событий
      */
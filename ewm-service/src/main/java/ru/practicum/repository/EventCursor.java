@@ -0,0 +1,111 @@
+package ru.practicum.repository;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.model.Event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор постраничной выдачи событий: ключ сортировки последнего события страницы.
+ * Следующая страница выбирается условием "после ключа" по индексу вместо OFFSET,
+ * поэтому глубокие страницы стоят столько же, сколько первая.
+ * Клиенту курсор передаётся непрозрачной строкой.
+ */
+@Value
+public class EventCursor {
+
+    Order order;
+    LocalDateTime eventDate;
+    Long views;
+    long id;
+
+    /**
+     * Порядок выдачи, для которого возможен курсор. Во всех порядках id - последний ключ,
+     * он делает порядок строгим.
+     */
+    public enum Order {
+        ID(Sort.by(Sort.Order.asc("id"))),
+        EVENT_DATE(Sort.by(Sort.Order.asc("eventDate"), Sort.Order.asc("id"))),
+        VIEWS(Sort.by(Sort.Order.desc("views"), Sort.Order.asc("id")));
+
+        private final Sort sort;
+
+        Order(Sort sort) {
+            this.sort = sort;
+        }
+
+        public Sort getSort() {
+            return sort;
+        }
+    }
+
+    public static EventCursor after(Event event, Order order) {
+        return new EventCursor(order,
+                order == Order.EVENT_DATE ? event.getEventDate() : null,
+                order == Order.VIEWS ? event.getViews() : null,
+                event.getId());
+    }
+
+    public static EventCursor after(EventShortView event, Order order) {
+        return new EventCursor(order,
+                order == Order.EVENT_DATE ? event.getEventDate() : null,
+                order == Order.VIEWS ? event.getViews() : null,
+                event.getId());
+    }
+
+    /**
+     * Разбирает курсор, выданный для того же порядка выдачи.
+     */
+    public static EventCursor decode(String value, Order expected) {
+        EventCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|", -1);
+            Order order = Order.valueOf(parts[0]);
+            cursor = new EventCursor(order,
+                    order == Order.EVENT_DATE ? LocalDateTime.parse(parts[1]) : null,
+                    order == Order.VIEWS ? Long.valueOf(parts[1]) : null,
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        if (cursor.getOrder() != expected) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.getOrder()
+                    + " and cannot be used with sort " + expected);
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        String key = switch (order) {
+            case ID -> "";
+            case EVENT_DATE -> eventDate.toString();
+            case VIEWS -> views.toString();
+        };
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((order + "|" + key + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Условие "строго после курсора" вместе с сортировкой в порядке {@link #order}.
+     */
+    public Specification<Event> toSpecification() {
+        return (root, query, cb) -> {
+            query.orderBy(QueryUtils.toOrders(order.getSort(), root, cb));
+            return switch (order) {
+                case ID -> cb.greaterThan(root.get("id"), id);
+                case EVENT_DATE -> cb.or(
+                        cb.greaterThan(root.get("eventDate"), eventDate),
+                        cb.and(cb.equal(root.get("eventDate"), eventDate), cb.greaterThan(root.get("id"), id)));
+                case VIEWS -> cb.or(
+                        cb.lessThan(root.get("views"), views),
+                        cb.and(cb.equal(root.get("views"), views), cb.greaterThan(root.get("id"), id)));
+            };
+        };
+    }
+}
@@ -4,16 +4,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import ru.practicum.model.Event;
 import ru.practicum.model.EventState;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventRepositoryCustom {
 
     // Для проверки существования события по категории
     boolean existsByCategoryId(Long categoryId);
@@ -30,6 +34,27 @@ public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecific
     // Поиск событий по списку ID
     List<Event> findByIdIn(List<Long> events);
 
+    // Краткие данные событий для списков: один запрос с категорией и инициатором, без описания
+    @Query("SELECT new ru.practicum.repository.EventShortView(e.id, e.annotation, c.id, c.name, e.eventDate, " +
+            "u.id, u.name, e.paid, e.title, e.publishedOn, e.views, e.state, e.confirmedRequests) " +
+            "FROM Event e JOIN e.category c JOIN e.initiator u WHERE e.id IN :ids")
+    List<EventShortView> findShortViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Атомарно меняет счётчик подтверждённых заявок на count, если результат не превышает лимит участников
+     * (лимит 0 - без ограничения). Возвращает 0, если мест не хватило: проверка и изменение выполняются
+     * одним UPDATE под блокировкой строки, поэтому лимит соблюдается и при одновременных подтверждениях.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.confirmedRequests = COALESCE(e.confirmedRequests, 0) + :count " +
+            "WHERE e.id = :eventId AND (e.participantLimit = 0 " +
+            "OR COALESCE(e.confirmedRequests, 0) + :count <= e.participantLimit)")
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("count") int count);
+
+    // Текущее значение счётчика из базы, минуя загруженную в контекст сущность
+    @Query("SELECT COALESCE(e.confirmedRequests, 0) FROM Event e WHERE e.id = :eventId")
+    int findConfirmedRequests(@Param("eventId") Long eventId);
+
     // В EventRepository - САМЫЙ ПРОСТОЙ ЗАПРОС
     @Query("SELECT e FROM Event e WHERE e.state = 'PUBLISHED'")
     Page<Event> findPublicEvents(Pageable pageable);
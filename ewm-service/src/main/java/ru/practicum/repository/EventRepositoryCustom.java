@@ -0,0 +1,16 @@
+package ru.practicum.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.model.Event;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Идентификаторы событий страницы: тот же фильтр и порядок, что у findAll(spec, pageable),
+     * но без чтения строк событий и без запроса количества.
+     */
+    List<Long> findIds(Specification<Event> spec, Pageable pageable);
+}
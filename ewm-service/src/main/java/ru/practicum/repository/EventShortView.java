@@ -0,0 +1,27 @@
+package ru.practicum.repository;
+
+import lombok.Value;
+import ru.practicum.model.EventState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Колонки события, нужные для EventShortDto, вместе с категорией и инициатором.
+ * Читается одним запросом с JOIN (конструктор в JPQL), без загрузки сущностей и длинного описания.
+ */
+@Value
+public class EventShortView {
+    Long id;
+    String annotation;
+    Long categoryId;
+    String categoryName;
+    LocalDateTime eventDate;
+    Long initiatorId;
+    String initiatorName;
+    Boolean paid;
+    String title;
+    LocalDateTime publishedOn;
+    Long views;
+    EventState state;
+    Integer confirmedRequests;
+}
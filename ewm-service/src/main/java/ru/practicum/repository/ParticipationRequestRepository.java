@@ -1,11 +1,14 @@
 package ru.practicum.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.dto.ParticipationRequestDto;
 import ru.practicum.model.ParticipationRequest;
 import ru.practicum.model.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +52,37 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
             "GROUP BY r.event.id")
     List<Object[]> countConfirmedRequestsByEventIds(@Param("eventIds") List<Long> eventIds);
 
+    // Проверка принадлежности событию и статуса набора заявок без загрузки сущностей
+    @Query("SELECT new ru.practicum.repository.RequestStatusCheck(COUNT(r), " +
+            "MIN(CASE WHEN r.event.id <> :eventId THEN r.id END), " +
+            "MIN(CASE WHEN r.status <> :status THEN r.id END)) " +
+            "FROM ParticipationRequest r WHERE r.id IN :requestIds")
+    RequestStatusCheck checkRequests(@Param("requestIds") Collection<Long> requestIds,
+                                     @Param("eventId") Long eventId,
+                                     @Param("status") RequestStatus status);
+
+    // Массовая смена статуса заявок события; меняются только заявки в статусе from
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ParticipationRequest r SET r.status = :to " +
+            "WHERE r.id IN :requestIds AND r.event.id = :eventId AND r.status = :from")
+    int updateStatuses(@Param("requestIds") Collection<Long> requestIds, @Param("eventId") Long eventId,
+                       @Param("from") RequestStatus from, @Param("to") RequestStatus to);
+
+    // Перевод всех заявок события из статуса from в статус to одним запросом
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ParticipationRequest r SET r.status = :to WHERE r.event.id = :eventId AND r.status = :from")
+    int updateStatusesByEventId(@Param("eventId") Long eventId,
+                                @Param("from") RequestStatus from, @Param("to") RequestStatus to);
+
+    @Query("SELECT new ru.practicum.dto.ParticipationRequestDto(r.created, r.event.id, r.id, r.requester.id, r.status) " +
+            "FROM ParticipationRequest r WHERE r.id IN :requestIds ORDER BY r.id")
+    List<ParticipationRequestDto> findDtosByIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    // Кто из пользователей уже подал заявку на событие
+    @Query("SELECT r.requester.id FROM ParticipationRequest r " +
+            "WHERE r.event.id = :eventId AND r.requester.id IN :requesterIds")
+    List<Long> findRequesterIds(@Param("eventId") Long eventId, @Param("requesterIds") Collection<Long> requesterIds);
+
     // Дополнительные методы для удобства
     @Query("SELECT r FROM ParticipationRequest r WHERE r.event.id = :eventId AND r.requester.id = :requesterId")
     Optional<ParticipationRequest> findRequestByEventAndRequester(@Param("eventId") Long eventId,
@@ -0,0 +1,14 @@
+package ru.practicum.repository;
+
+import lombok.Value;
+
+/**
+ * Итог проверки набора заявок одним агрегирующим запросом: сколько заявок найдено,
+ * наименьший id заявки другого события и наименьший id заявки не в статусе PENDING (null, если таких нет).
+ */
+@Value
+public class RequestStatusCheck {
+    Long found;
+    Long foreignId;
+    Long notPendingId;
+}
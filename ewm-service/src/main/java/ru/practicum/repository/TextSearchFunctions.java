@@ -0,0 +1,34 @@
+package ru.practicum.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функции полнотекстового поиска для запросов Criteria, регистрируются только для PostgreSQL.
+ * Аргументы: аннотация, описание, текст запроса.
+ * Выражение документа должно совпадать с выражением индекса idx_events_fts из schema-postgresql.sql,
+ * иначе PostgreSQL не сможет использовать индекс.
+ */
+public class TextSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "ewm_fts_match";
+    public static final String RANK = "ewm_fts_rank";
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "websearch_to_tsquery('simple', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        if (!(contributions.getDialect() instanceof PostgreSQLDialect)) {
+            return;
+        }
+        BasicTypeRegistry types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+        contributions.getFunctionRegistry().registerPattern(MATCH,
+                "(" + DOCUMENT + " @@ " + QUERY + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+        contributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,244 @@
+package ru.practicum.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.PublicEventSearchRequest;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.TextSearchMode;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.service.EventTextSearch;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поисковый движок по опубликованным событиям в памяти процесса (ewm.search.engine.enabled).
+ * Публичный поиск отбирает, фильтрует, сортирует и режет на страницы идентификаторы событий в памяти,
+ * а база загружает только события итоговой страницы.
+ * Индекс строится при запуске и обновляется после фиксации транзакций, меняющих события.
+ * Пока индекс не построен, а также для сортировки VIEWS (просмотры хранятся только в базе) поиск идёт через базу.
+ */
+@Slf4j
+@Component
+public class EventSearchEngine {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final EventTextSearch eventTextSearch;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile EventSearchIndex index;
+    // События, изменённые во время перестроения: после загрузки они перечитываются из базы
+    private Set<Long> touchedDuringRebuild;
+
+    public EventSearchEngine(EventRepository eventRepository,
+                             EventTextSearch eventTextSearch,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${ewm.search.engine.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.eventTextSearch = eventTextSearch;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean supports(PublicEventSearchRequest request) {
+        return index != null && !"VIEWS".equals(request.getSort());
+    }
+
+    /**
+     * Идентификаторы событий в порядке выдачи: не больше limit, начиная с позиции skip
+     * от начала запрошенной страницы.
+     */
+    public List<Long> search(PublicEventSearchRequest request, int skip, int limit) {
+        Pageable pageable = request.getPageable();
+        EventSearchIndex.Query query = EventSearchIndex.Query.builder()
+                .text(request.getText())
+                .textMode(textMode(request.getTextMode()))
+                .categories(request.getCategories() != null ? Set.copyOf(request.getCategories()) : null)
+                .paid(request.getPaid())
+                .rangeStart(request.getRangeStart())
+                .rangeEnd(request.getRangeEnd())
+                .onlyAvailable(Boolean.TRUE.equals(request.getOnlyAvailable()))
+                .sort(request.getSort())
+                .after(request.getAfter())
+                .from((int) pageable.getOffset() + skip)
+                .size(limit)
+                .build();
+
+        lock.readLock().lock();
+        try {
+            return index.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вызывается внутри транзакции, изменившей событие. Снимок полей берётся сразу,
+     * а в индекс попадает только после фиксации транзакции. Счётчик подтверждённых заявок из снимка
+     * используется только для нового в индексе события: дальше его ведёт onConfirmedRequestsChanged.
+     */
+    public void onEventChanged(Event event) {
+        if (!enabled) {
+            return;
+        }
+        long eventId = event.getId();
+        EventSearchIndex.Document document = event.getState() == EventState.PUBLISHED ? toDocument(event) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(eventId, document);
+                }
+            });
+        } else {
+            apply(eventId, document);
+        }
+    }
+
+    /**
+     * Изменение счётчика подтверждённых заявок, применяется после фиксации транзакции.
+     * Передаётся разница, а не значение: разницы от параллельных транзакций складываются в любом порядке.
+     */
+    public void onConfirmedRequestsChanged(long eventId, int delta) {
+        if (!enabled || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyConfirmedRequests(eventId, delta);
+                }
+            });
+        } else {
+            applyConfirmedRequests(eventId, delta);
+        }
+    }
+
+    // Поиск через базу выполняет FULLTEXT как подстроку, если база не поддерживает полнотекстовый поиск (H2);
+    // движок ведёт себя так же, чтобы результат не зависел от того, кто обслужил запрос
+    private TextSearchMode textMode(TextSearchMode requested) {
+        return requested == TextSearchMode.FULLTEXT && !eventTextSearch.isFullTextSupported()
+                ? TextSearchMode.SUBSTRING
+                : requested;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        EventSearchIndex fresh = new EventSearchIndex();
+        int page = 0;
+        boolean hasNext;
+        do {
+            PageRequest pageRequest = PageRequest.of(page++, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Page<EventSearchIndex.Document> documents = readOnlyTransaction.execute(status ->
+                    eventRepository.findPublicEvents(pageRequest).map(EventSearchEngine::toDocument));
+            documents.forEach(fresh::put);
+            hasNext = documents.hasNext();
+        } while (hasNext);
+
+        lock.writeLock().lock();
+        try {
+            if (!touchedDuringRebuild.isEmpty()) {
+                Map<Long, EventSearchIndex.Document> current = readOnlyTransaction.execute(status ->
+                        eventRepository.findAllById(touchedDuringRebuild).stream()
+                                .filter(event -> event.getState() == EventState.PUBLISHED)
+                                .map(EventSearchEngine::toDocument)
+                                .collect(Collectors.toMap(EventSearchIndex.Document::getEventId, Function.identity())));
+                for (Long eventId : touchedDuringRebuild) {
+                    EventSearchIndex.Document document = Objects.requireNonNull(current).get(eventId);
+                    if (document != null) {
+                        fresh.put(document);
+                    } else {
+                        fresh.remove(eventId);
+                    }
+                }
+            }
+            index = fresh;
+            touchedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Event search index rebuilt: {} events, {} terms in {} ms",
+                fresh.liveCount(), fresh.termCount(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void apply(long eventId, EventSearchIndex.Document document) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(eventId);
+            }
+            if (index != null) {
+                if (document != null) {
+                    index.update(document);
+                } else {
+                    index.remove(eventId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyConfirmedRequests(long eventId, int delta) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(eventId);
+            }
+            if (index != null) {
+                index.addConfirmedRequests(eventId, delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static EventSearchIndex.Document toDocument(Event event) {
+        return EventSearchIndex.Document.builder()
+                .eventId(event.getId())
+                .categoryId(event.getCategory().getId())
+                .paid(Boolean.TRUE.equals(event.getPaid()))
+                .eventDate(event.getEventDate())
+                .participantLimit(Objects.requireNonNullElse(event.getParticipantLimit(), 0))
+                .confirmedRequests(Objects.requireNonNullElse(event.getConfirmedRequests(), 0))
+                .annotation(event.getAnnotation())
+                .description(event.getDescription())
+                .build();
+    }
+}
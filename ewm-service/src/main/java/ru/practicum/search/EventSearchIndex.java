@@ -0,0 +1,439 @@
+package ru.practicum.search;
+
+import lombok.Builder;
+import lombok.Value;
+import ru.practicum.model.TextSearchMode;
+import ru.practicum.repository.EventCursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Инвертированный индекс опубликованных событий в памяти.
+ * Документ получает порядковый номер (ordinal) при добавлении; обновление помечает старый номер удалённым
+ * и добавляет документ заново, поэтому списки номеров по терминам всегда отсортированы по возрастанию.
+ * Поля для фильтров и сортировки (категория, платность, дата, лимит и число подтверждённых заявок)
+ * хранятся колонками по номеру документа.
+ * Когда удалённых номеров становится больше живых, индекс уплотняется.
+ * Класс не потокобезопасен: синхронизацию обеспечивает {@link EventSearchEngine}.
+ */
+class EventSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Термины словаря по их триграммам: поиск подстроки проверяет только термины, содержащие триграммы токена
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<Long, Integer> ordinalByEventId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] eventIds = new long[INITIAL_CAPACITY];
+    private long[] categories = new long[INITIAL_CAPACITY];
+    private long[] eventDates = new long[INITIAL_CAPACITY];
+    private int[] participantLimits = new int[INITIAL_CAPACITY];
+    private int[] confirmedRequests = new int[INITIAL_CAPACITY];
+    private final BitSet paid = new BitSet();
+    // Текст в нижнем регистре нужен для проверки совпадения подстроки после отбора кандидатов по терминам
+    private String[] annotations = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+
+    private int size;
+
+    public int liveCount() {
+        return ordinalByEventId.size();
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    public void put(Document document) {
+        remove(document.getEventId());
+        ensureCapacity(size + 1);
+
+        int ordinal = size++;
+        eventIds[ordinal] = document.getEventId();
+        categories[ordinal] = document.getCategoryId();
+        eventDates[ordinal] = epochSecond(document.getEventDate());
+        participantLimits[ordinal] = document.getParticipantLimit();
+        confirmedRequests[ordinal] = document.getConfirmedRequests();
+        paid.set(ordinal, document.isPaid());
+        annotations[ordinal] = lower(document.getAnnotation());
+        descriptions[ordinal] = lower(document.getDescription());
+
+        // Индексируются те же поля, что в полнотекстовом индексе idx_events_fts: аннотация и описание
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String text : new String[]{document.getAnnotation(), document.getDescription()}) {
+            for (String token : tokenize(text)) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+        frequencies.forEach((term, frequency) -> terms.computeIfAbsent(term, key -> {
+            for (String trigram : trigrams(key)) {
+                termsByTrigram.computeIfAbsent(trigram, gram -> new HashSet<>()).add(key);
+            }
+            return new Postings();
+        }).add(ordinal, frequency));
+        ordinalByEventId.put(document.getEventId(), ordinal);
+    }
+
+    /**
+     * Заменяет документ, сохраняя счётчик подтверждённых заявок уже проиндексированного события.
+     * Счётчик меняется только разницами после фиксации заявок, а снимок события мог быть прочитан до них.
+     */
+    public void update(Document document) {
+        Integer ordinal = ordinalByEventId.get(document.getEventId());
+        put(ordinal == null
+                ? document
+                : document.toBuilder().confirmedRequests(confirmedRequests[ordinal]).build());
+    }
+
+    public void remove(long eventId) {
+        Integer ordinal = ordinalByEventId.remove(eventId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        annotations[ordinal] = null;
+        descriptions[ordinal] = null;
+        if (deleted.cardinality() > ordinalByEventId.size() && size > INITIAL_CAPACITY) {
+            compact();
+        }
+    }
+
+    public void addConfirmedRequests(long eventId, int delta) {
+        Integer ordinal = ordinalByEventId.get(eventId);
+        if (ordinal != null) {
+            confirmedRequests[ordinal] += delta;
+        }
+    }
+
+    /**
+     * Идентификаторы событий страницы результата в порядке выдачи.
+     */
+    public List<Long> search(Query query) {
+        BitSet candidates = new BitSet(size);
+        candidates.set(0, size);
+        candidates.andNot(deleted);
+
+        float[] scores = null;
+        String text = query.getText() != null && !query.getText().isBlank() ? lower(query.getText()) : null;
+        if (text != null) {
+            if (query.getTextMode() == TextSearchMode.FULLTEXT) {
+                WebSearchQuery parsed = WebSearchQuery.parse(text);
+                if (parsed.isEmpty()) {
+                    return List.of();
+                }
+                scores = new float[size];
+                candidates.and(match(parsed, candidates, scores));
+            } else {
+                // Подстрока может начинаться внутри термина: кандидаты - документы с терминами, содержащими каждый токен.
+                // Токен короче триграммы выбор не сужает, такие кандидаты отсеивает проверка текста ниже
+                for (String token : tokenize(text)) {
+                    if (token.length() < 3) {
+                        continue;
+                    }
+                    BitSet matching = new BitSet(size);
+                    for (String term : termsContaining(token)) {
+                        terms.get(term).collect(matching);
+                    }
+                    candidates.and(matching);
+                }
+            }
+        }
+
+        long start = query.getRangeStart() != null ? epochSecond(query.getRangeStart()) : Long.MIN_VALUE;
+        long end = query.getRangeEnd() != null ? epochSecond(query.getRangeEnd()) : Long.MAX_VALUE;
+        EventCursor after = query.getAfter();
+        long afterDate = after != null && after.getEventDate() != null ? epochSecond(after.getEventDate()) : 0;
+        List<Integer> matches = new ArrayList<>();
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (after != null && !isAfter(ordinal, after, afterDate)) {
+                continue;
+            }
+            if (eventDates[ordinal] < start || eventDates[ordinal] > end) {
+                continue;
+            }
+            if (query.getPaid() != null && paid.get(ordinal) != query.getPaid()) {
+                continue;
+            }
+            if (query.getCategories() != null && !query.getCategories().isEmpty()
+                    && !query.getCategories().contains(categories[ordinal])) {
+                continue;
+            }
+            if (query.isOnlyAvailable() && participantLimits[ordinal] != 0
+                    && participantLimits[ordinal] <= confirmedRequests[ordinal]) {
+                continue;
+            }
+            if (text != null && query.getTextMode() != TextSearchMode.FULLTEXT
+                    && !annotations[ordinal].contains(text) && !descriptions[ordinal].contains(text)) {
+                continue;
+            }
+            matches.add(ordinal);
+        }
+
+        Comparator<Integer> byId = Comparator.comparingLong(ordinal -> eventIds[ordinal]);
+        if ("EVENT_DATE".equals(query.getSort())) {
+            matches.sort(Comparator.<Integer>comparingLong(ordinal -> eventDates[ordinal]).thenComparing(byId));
+        } else if (scores != null && query.getSort() == null) {
+            float[] rank = scores;
+            matches.sort(Comparator.<Integer>comparingDouble(ordinal -> -rank[ordinal]).thenComparing(byId));
+        } else {
+            matches.sort(byId);
+        }
+
+        int from = Math.min(query.getFrom(), matches.size());
+        int to = Math.min(from + query.getSize(), matches.size());
+        return matches.subList(from, to).stream().map(ordinal -> eventIds[ordinal]).toList();
+    }
+
+    // Документы, подходящие хотя бы под одну альтернативу запроса; положительные термины добавляют оценку
+    private BitSet match(WebSearchQuery query, BitSet live, float[] scores) {
+        BitSet result = new BitSet(size);
+        for (List<WebSearchQuery.Clause> alternative : query.getAlternatives()) {
+            BitSet matching = (BitSet) live.clone();
+            for (WebSearchQuery.Clause clause : alternative) {
+                BitSet clauseMatches = match(clause, matching, clause.isNegated() ? null : scores);
+                if (clause.isNegated()) {
+                    matching.andNot(clauseMatches);
+                } else {
+                    matching.and(clauseMatches);
+                }
+            }
+            result.or(matching);
+        }
+        return result;
+    }
+
+    // Документы из candidates, содержащие все термины условия, а для фразы - ещё и подряд
+    private BitSet match(WebSearchQuery.Clause clause, BitSet candidates, float[] scores) {
+        BitSet result = (BitSet) candidates.clone();
+        for (String term : clause.getTerms()) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                return new BitSet(size);
+            }
+            result.and(scores != null ? postings.score(scores, size, liveCount()) : postings.collect(new BitSet(size)));
+        }
+        if (clause.isPhrase()) {
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                // Как в to_tsvector(annotation || ' ' || description): фраза может переходить из аннотации в описание
+                List<String> tokens = tokenize(annotations[ordinal] + " " + descriptions[ordinal]);
+                if (Collections.indexOfSubList(tokens, clause.getTerms()) < 0) {
+                    result.clear(ordinal);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Термины словаря, содержащие токен: перебираются только термины с самой редкой из его триграмм
+    private List<String> termsContaining(String token) {
+        Set<String> smallest = null;
+        for (String trigram : trigrams(token)) {
+            Set<String> candidates = termsByTrigram.get(trigram);
+            if (candidates == null) {
+                return List.of();
+            }
+            if (smallest == null || candidates.size() < smallest.size()) {
+                smallest = candidates;
+            }
+        }
+        return smallest == null
+                ? List.of()
+                : smallest.stream().filter(term -> term.contains(token)).toList();
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            result.add(term.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    // Поддерживаются курсоры порядков ID и EVENT_DATE; VIEWS движок не обслуживает
+    private boolean isAfter(int ordinal, EventCursor after, long afterDate) {
+        if (after.getOrder() == EventCursor.Order.EVENT_DATE && eventDates[ordinal] != afterDate) {
+            return eventDates[ordinal] > afterDate;
+        }
+        return eventIds[ordinal] > after.getId();
+    }
+
+    // Перенумеровывает живые документы подряд и выбрасывает удалённые из списков терминов
+    private void compact() {
+        int[] remap = new int[size];
+        int live = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = live;
+            eventIds[live] = eventIds[ordinal];
+            categories[live] = categories[ordinal];
+            eventDates[live] = eventDates[ordinal];
+            participantLimits[live] = participantLimits[ordinal];
+            confirmedRequests[live] = confirmedRequests[ordinal];
+            paid.set(live, paid.get(ordinal));
+            annotations[live] = annotations[ordinal];
+            descriptions[live] = descriptions[ordinal];
+            live++;
+        }
+        Arrays.fill(annotations, live, size, null);
+        Arrays.fill(descriptions, live, size, null);
+        paid.clear(live, size);
+        terms.entrySet().removeIf(entry -> {
+            if (!entry.getValue().remap(remap)) {
+                return false;
+            }
+            for (String trigram : trigrams(entry.getKey())) {
+                Set<String> sameTrigram = termsByTrigram.get(trigram);
+                sameTrigram.remove(entry.getKey());
+                if (sameTrigram.isEmpty()) {
+                    termsByTrigram.remove(trigram);
+                }
+            }
+            return true;
+        });
+        ordinalByEventId.replaceAll((eventId, ordinal) -> remap[ordinal]);
+        deleted.clear();
+        size = live;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= eventIds.length) {
+            return;
+        }
+        int grown = Math.max(capacity, eventIds.length * 2);
+        eventIds = Arrays.copyOf(eventIds, grown);
+        categories = Arrays.copyOf(categories, grown);
+        eventDates = Arrays.copyOf(eventDates, grown);
+        participantLimits = Arrays.copyOf(participantLimits, grown);
+        confirmedRequests = Arrays.copyOf(confirmedRequests, grown);
+        annotations = Arrays.copyOf(annotations, grown);
+        descriptions = Arrays.copyOf(descriptions, grown);
+    }
+
+    // Термины - последовательности букв и цифр в нижнем регистре
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = lower(text);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MIN_VALUE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Номера документов с термином (по возрастанию) и число вхождений термина в каждый из них.
+     */
+    private static class Postings {
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int length;
+
+        void add(int ordinal, int frequency) {
+            if (length == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, length * 2);
+                frequencies = Arrays.copyOf(frequencies, length * 2);
+            }
+            ordinals[length] = ordinal;
+            frequencies[length] = frequency;
+            length++;
+        }
+
+        BitSet collect(BitSet target) {
+            for (int i = 0; i < length; i++) {
+                target.set(ordinals[i]);
+            }
+            return target;
+        }
+
+        // Добавляет к оценке документов tf * idf термина и возвращает множество документов с ним
+        BitSet score(float[] scores, int size, int documents) {
+            BitSet result = new BitSet(size);
+            float idf = (float) Math.log(1.0 + (double) documents / length);
+            for (int i = 0; i < length; i++) {
+                result.set(ordinals[i]);
+                scores[ordinals[i]] += frequencies[i] * idf;
+            }
+            return result;
+        }
+
+        // Возвращает true, если после перенумерации список опустел
+        boolean remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            length = kept;
+            return length == 0;
+        }
+    }
+
+    @Value
+    @Builder(toBuilder = true)
+    public static class Document {
+        long eventId;
+        long categoryId;
+        boolean paid;
+        LocalDateTime eventDate;
+        int participantLimit;
+        int confirmedRequests;
+        String annotation;
+        String description;
+    }
+
+    @Value
+    @Builder
+    public static class Query {
+        String text;
+        TextSearchMode textMode;
+        Collection<Long> categories;
+        Boolean paid;
+        LocalDateTime rangeStart;
+        LocalDateTime rangeEnd;
+        boolean onlyAvailable;
+        String sort;
+        EventCursor after;
+        int from;
+        int size;
+    }
+}
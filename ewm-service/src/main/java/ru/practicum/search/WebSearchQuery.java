@@ -0,0 +1,87 @@
+package ru.practicum.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбор текста полнотекстового запроса по правилам websearch_to_tsquery PostgreSQL:
+ * слова через пробел объединяются по И, слово or разделяет альтернативы, минус перед словом
+ * или фразой исключает её, текст в кавычках - фраза из стоящих подряд терминов.
+ * Слово, которое токенизатор делит на несколько терминов (например, e-mail), тоже считается фразой.
+ */
+@Value
+class WebSearchQuery {
+
+    // Альтернативы, объединённые по ИЛИ; внутри альтернативы условия объединяются по И
+    List<List<Clause>> alternatives;
+
+    boolean isEmpty() {
+        return alternatives.isEmpty();
+    }
+
+    static WebSearchQuery parse(String text) {
+        List<List<Clause>> alternatives = new ArrayList<>();
+        List<Clause> current = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        boolean negated = false;
+        int i = 0;
+        while (i < lower.length()) {
+            char c = lower.charAt(i);
+            if (c == '"') {
+                int end = lower.indexOf('"', i + 1);
+                end = end < 0 ? lower.length() : end;
+                add(current, EventSearchIndex.tokenize(lower.substring(i + 1, end)), negated);
+                negated = false;
+                i = end + 1;
+            } else if (c == '-' && (i == 0 || Character.isWhitespace(lower.charAt(i - 1)))) {
+                negated = true;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                negated = false;
+                i++;
+            } else {
+                int end = i;
+                while (end < lower.length() && !Character.isWhitespace(lower.charAt(end)) && lower.charAt(end) != '"') {
+                    end++;
+                }
+                String word = lower.substring(i, end);
+                if (word.equals("or") && !negated) {
+                    if (!current.isEmpty()) {
+                        alternatives.add(current);
+                        current = new ArrayList<>();
+                    }
+                } else {
+                    add(current, EventSearchIndex.tokenize(word), negated);
+                }
+                negated = false;
+                i = end;
+            }
+        }
+        if (!current.isEmpty()) {
+            alternatives.add(current);
+        }
+        return new WebSearchQuery(alternatives);
+    }
+
+    private static void add(List<Clause> clauses, List<String> terms, boolean negated) {
+        if (!terms.isEmpty()) {
+            clauses.add(new Clause(terms, negated));
+        }
+    }
+
+    /**
+     * Термин (один элемент) или фраза, с отрицанием или без.
+     */
+    @Value
+    static class Clause {
+        List<String> terms;
+        boolean negated;
+
+        boolean isPhrase() {
+            return terms.size() > 1;
+        }
+    }
+}
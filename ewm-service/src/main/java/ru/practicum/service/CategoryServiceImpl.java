@@ -3,12 +3,11 @@ package ru.practicum.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.EventDetailCache;
+import ru.practicum.cache.ReferenceDataCache;
+import ru.practicum.cache.SearchResultCache;
 import ru.practicum.dto.NewCategoryDto;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.exception.ConflictException;
@@ -19,7 +18,6 @@ import ru.practicum.repository.EventRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,6 +27,9 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final EventDetailCache eventDetailCache;
+    private final SearchResultCache searchResultCache;
 
     @Override
     @Transactional
@@ -46,6 +47,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         try {
             Category savedCategory = categoryRepository.save(category);
+            referenceDataCache.onCategoriesChanged();
             log.info("Category created successfully with id: {}", savedCategory.getId());
             return convertToDto(savedCategory);
         } catch (DataIntegrityViolationException e) {
@@ -57,12 +59,8 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryDto> getCategories(int from, int size) {
         log.info("Getting categories with from: {}, size: {}", from, size);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id"));
-        Page<Category> categoryPage = categoryRepository.findAll(pageable);
-
-        List<CategoryDto> result = categoryPage.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // Прежняя страница PageRequest.of(from / size, size): from округляется вниз до кратного size
+        List<CategoryDto> result = referenceDataCache.getCategories(from / size * size, size);
 
         log.info("Returning {} categories", result.size());
         return result;
@@ -71,9 +69,8 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public CategoryDto getCategoryById(Long catId) {
         log.info("Getting category by id: {}", catId);
-        Category category = categoryRepository.findById(catId)
+        return referenceDataCache.getCategory(catId)
                 .orElseThrow(() -> new NotFoundException("Category with id=" + catId + " was not found"));
-        return convertToDto(category);
     }
 
     @Override
@@ -93,6 +90,10 @@ public class CategoryServiceImpl implements CategoryService {
 
         try {
             Category updatedCategory = categoryRepository.save(category);
+            referenceDataCache.onCategoriesChanged();
+            // Название категории входит в закэшированные карточки и страницы поиска
+            eventDetailCache.invalidateAll();
+            searchResultCache.onEventsChanged();
             log.info("Category with id {} updated successfully", catId);
             return convertToDto(updatedCategory);
         } catch (DataIntegrityViolationException e) {
@@ -113,6 +114,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.delete(category);
+        referenceDataCache.onCategoriesChanged();
         log.info("Category with id {} deleted successfully", catId);
     }
 
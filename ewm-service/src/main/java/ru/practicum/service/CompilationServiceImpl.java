@@ -2,7 +2,6 @@ package ru.practicum.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -11,10 +10,12 @@ import ru.practicum.dto.*;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.model.Compilation;
 import ru.practicum.model.Event;
+import ru.practicum.repository.CompilationEventId;
 import ru.practicum.repository.CompilationRepository;
 import ru.practicum.repository.EventRepository;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -87,20 +88,13 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        Page<Compilation> compilationPage;
-
-        if (pinned != null) {
-            compilationPage = compilationRepository.findByPinned(pinned, pageable);
-        } else {
-            compilationPage = compilationRepository.findAll(pageable);
-        }
-
-        List<Compilation> compilations = compilationPage.getContent();
+        // Список возвращается без общего количества, поэтому запрос COUNT не нужен
+        List<Compilation> compilations = pinned != null
+                ? compilationRepository.findAllByPinned(pinned, pageable)
+                : compilationRepository.findAllBy(pageable);
         log.info("Получено {} подборок", compilations.size());
 
-        return compilations.stream()
-                .map(this::mapToCompilationDto)
-                .collect(Collectors.toList());
+        return mapToCompilationDtos(compilations);
     }
 
     @Override
@@ -113,45 +107,41 @@ public class CompilationServiceImpl implements CompilationService {
     }
 
     private CompilationDto mapToCompilationDto(Compilation compilation) {
-        // Получаем все события из подборки
-        List<Event> events = new ArrayList<>(compilation.getEvents());
-
-        // Получаем статистику просмотров для всех событий
-        Map<Long, Long> views = eventService.getViewsCount(events);
-        // Преобразуем Set<Event> в List<EventShortDto>
-        List<EventShortDto> eventDtos = events.stream()
-                .map(event -> mapToEventShortDto(event, views.getOrDefault(event.getId(), 0L)))
-                .collect(Collectors.toList());
-
-        return CompilationDto.builder()
-                .id(compilation.getId())
-                .title(compilation.getTitle())
-                .pinned(compilation.getPinned())
-                .events(eventDtos)
-                .build();
+        return mapToCompilationDtos(List.of(compilation)).get(0);
     }
 
-    private EventShortDto mapToEventShortDto(Event event, Long views) {
-        CategoryDto categoryDto = CategoryDto.builder()
-                .id(event.getCategory().getId())
-                .name(event.getCategory().getName())
-                .build();
-
-        UserShortDto userShortDto = UserShortDto.builder()
-                .id(event.getInitiator().getId())
-                .name(event.getInitiator().getName())
-                .build();
+    /**
+     * События всех подборок читаются вместе: один запрос связей, одна выборка кратких представлений
+     * и один запрос к статистике, независимо от числа подборок на странице.
+     */
+    private List<CompilationDto> mapToCompilationDtos(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<CompilationEventId> links = compilationRepository.findEventIds(
+                compilations.stream().map(Compilation::getId).collect(Collectors.toList()));
+        List<Long> eventIds = links.stream()
+                .map(CompilationEventId::getEventId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, EventShortDto> eventsById = eventService.getShortEvents(eventIds).stream()
+                .collect(Collectors.toMap(EventShortDto::getId, Function.identity()));
+
+        Map<Long, List<EventShortDto>> eventsByCompilation = new HashMap<>();
+        for (CompilationEventId link : links) {
+            EventShortDto event = eventsById.get(link.getEventId());
+            if (event != null) {
+                eventsByCompilation.computeIfAbsent(link.getCompilationId(), id -> new ArrayList<>()).add(event);
+            }
+        }
 
-        return EventShortDto.builder()
-                .id(event.getId())
-                .title(event.getTitle())
-                .annotation(event.getAnnotation())
-                .category(categoryDto)
-                .eventDate(event.getEventDate())
-                .initiator(userShortDto)
-                .paid(event.getPaid())
-                .views(views)
-                .confirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests() : 0L)
-                .build();
+        return compilations.stream()
+                .map(compilation -> CompilationDto.builder()
+                        .id(compilation.getId())
+                        .title(compilation.getTitle())
+                        .pinned(compilation.getPinned())
+                        .events(eventsByCompilation.getOrDefault(compilation.getId(), new ArrayList<>()))
+                        .build())
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
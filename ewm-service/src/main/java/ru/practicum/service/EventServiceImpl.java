@@ -2,34 +2,45 @@ package ru.practicum.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.dto.*;
+import ru.practicum.cache.EventDetailCache;
+import ru.practicum.cache.ReferenceDataCache;
+import ru.practicum.cache.SearchResultCache;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.model.*;
 import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventCursor;
 import ru.practicum.repository.EventRepository;
-import ru.practicum.repository.ParticipationRequestRepository;
+import ru.practicum.repository.EventShortView;
+import ru.practicum.repository.OffsetPageRequest;
 import ru.practicum.repository.UserRepository;
+import ru.practicum.search.EventSearchEngine;
 import ru.practicum.StatsClient;
 import ru.practicum.statsdto.EndpointHit;
-import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.EventViewStats;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import jakarta.persistence.criteria.Predicate;
 
@@ -42,8 +53,13 @@ public class EventServiceImpl implements EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final ParticipationRequestRepository requestRepository;
     private final StatsClient statsClient;
+    private final EventTextSearch eventTextSearch;
+    private final EventSearchEngine eventSearchEngine;
+    private final ReferenceDataCache referenceDataCache;
+    private final EventDetailCache eventDetailCache;
+    private final SearchResultCache searchResultCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -53,8 +69,7 @@ public class EventServiceImpl implements EventService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with id=" + userId + " was not found"));
 
-        Category category = categoryRepository.findById(newEventDto.getCategory())
-                .orElseThrow(() -> new NotFoundException("Category with id=" + newEventDto.getCategory() + " was not found"));
+        Category category = getCategoryReference(newEventDto.getCategory());
 
 
         if (newEventDto.getEventDate().isBefore(LocalDateTime.now().plusHours(2))) {
@@ -83,11 +98,13 @@ public class EventServiceImpl implements EventService {
                 .state(EventState.PENDING)
                 .createdOn(LocalDateTime.now())
                 .confirmedRequests(0)
+                .views(0L)
                 .lat(newEventDto.getLocation().getLat())
                 .lon(newEventDto.getLocation().getLon())
                 .build();
 
         Event savedEvent = eventRepository.save(event);
+        eventSearchEngine.onEventChanged(savedEvent);
 
         log.info("Event saved successfully - id: {}, annotation: '{}', description: '{}'",
                 savedEvent.getId(),
@@ -95,26 +112,24 @@ public class EventServiceImpl implements EventService {
                 savedEvent.getDescription());
 
         log.info("Event created successfully with id: {}", savedEvent.getId());
-        return convertToFullDto(savedEvent, 0L, 0L);
+        return convertToFullDto(savedEvent, 0L);
     }
 
     @Override
-    public List<EventShortDto> getUserEvents(Long userId, Pageable pageable) {
+    public CursorPage<EventShortDto> getUserEvents(Long userId, int from, int size, String cursor) {
         log.info("Getting events for user id: {}", userId);
 
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("User with id=" + userId + " was not found");
         }
 
-        List<Event> events = eventRepository.findByInitiatorId(userId, pageable).getContent();
-        Map<Long, Long> confirmedRequests = getConfirmedRequestsCount(events);
-        Map<Long, Long> views = getViewsCount(events);
+        EventCursor after = cursor != null ? EventCursor.decode(cursor, EventCursor.Order.ID) : null;
+        Specification<Event> spec = (root, query, cb) -> cb.equal(root.get("initiator").get("id"), userId);
+        List<Long> ids = findPageIds(spec,
+                new OffsetPageRequest(after != null ? 0 : from, size, EventCursor.Order.ID.getSort()), after);
 
-        return events.stream()
-                .map(event -> convertToShortDto(event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
-                        views.getOrDefault(event.getId(), 0L)))
-                .collect(Collectors.toList());
+        List<EventShortView> events = findShortViews(ids);
+        return new CursorPage<>(toShortDtos(events), nextCursor(events, size, EventCursor.Order.ID, EventCursor::after));
     }
 
     @Override
@@ -124,10 +139,9 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndInitiatorId(eventId, userId)
                 .orElseThrow(() -> new NotFoundException("Event with id=" + eventId + " was not found"));
 
-        Long confirmedRequests = requestRepository.countConfirmedRequestsByEventId(eventId);
-        Long views = getViewsCount(List.of(event)).getOrDefault(eventId, 0L);
+        Long views = getViewsCount(event).getOrDefault(eventId, 0L);
 
-        return convertToFullDto(event, confirmedRequests, views);
+        return convertToFullDto(event, views);
     }
 
     @Override
@@ -170,15 +184,16 @@ public class EventServiceImpl implements EventService {
         }
 
         Event updatedEvent = eventRepository.save(event);
-        Long confirmedRequests = requestRepository.countConfirmedRequestsByEventId(eventId);
-        Long views = getViewsCount(List.of(updatedEvent)).getOrDefault(eventId, 0L);
+        eventSearchEngine.onEventChanged(updatedEvent);
+        eventDetailCache.invalidate(eventId);
+        Long views = getViewsCount(updatedEvent).getOrDefault(eventId, 0L);
 
         log.info("Event id: {} updated successfully by user id: {}", eventId, userId);
-        return convertToFullDto(updatedEvent, confirmedRequests, views);
+        return convertToFullDto(updatedEvent, views);
     }
 
     @Override
-    public List<EventFullDto> getAdminEvents(AdminEventSearchRequest searchRequest) {
+    public CursorPage<EventFullDto> getAdminEvents(AdminEventSearchRequest searchRequest) {
         log.info("Getting events for admin with filters: {}", searchRequest);
 
         // Используем Specification вместо @Query
@@ -190,15 +205,66 @@ public class EventServiceImpl implements EventService {
                 searchRequest.getRangeEnd()
         );
 
-        Page<Event> events = eventRepository.findAll(spec, searchRequest.getPageable());
+        List<Long> ids = findPageIds(spec, searchRequest.getPageable(), searchRequest.getAfter());
+        List<Event> events = inOrder(ids, eventRepository.findAllById(ids), Event::getId);
+        // Инициаторы страницы, которых нет в кэше, загружаются одним запросом; категории берутся из снимка
+        referenceDataCache.getUsers(events.stream().map(event -> event.getInitiator().getId()).toList());
+
+        Map<Long, Long> views = getViewsCount(ids, events.stream().map(Event::getPublishedOn));
+
+        List<EventFullDto> result = events.stream()
+                .map(event -> convertToFullDto(event, views.getOrDefault(event.getId(), 0L)))
+                .collect(Collectors.toList());
+        return new CursorPage<>(result,
+                nextCursor(events, searchRequest.getSize(), EventCursor.Order.ID, EventCursor::after));
+    }
+
+    /**
+     * Идентификаторы событий страницы. Списки читаются в два шага: сначала id по фильтру и порядку,
+     * затем строки только этих событий вместе с категорией и инициатором, так что число запросов
+     * на страницу не зависит от её размера.
+     * С курсором - условие "после ключа" и LIMIT без OFFSET, без курсора - смещение from.
+     */
+    private List<Long> findPageIds(Specification<Event> spec, Pageable pageable, EventCursor after) {
+        return eventRepository.findIds(after != null ? spec.and(after.toSpecification()) : spec, pageable);
+    }
+
+    private List<EventShortView> findShortViews(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inOrder(ids, eventRepository.findShortViewsByIdIn(ids), EventShortView::getId);
+    }
 
-        Map<Long, Long> confirmedRequests = getConfirmedRequestsCount(events.getContent());
-        Map<Long, Long> views = getViewsCount(events.getContent());
+    // Строки из запроса по списку id идут в произвольном порядке, восстанавливаем порядок страницы
+    private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Курсор выдаётся только для полной страницы: неполная означает, что событий больше нет
+    private static <T> String nextCursor(List<T> events, int size, EventCursor.Order order,
+                                         BiFunction<T, EventCursor.Order, EventCursor> after) {
+        if (order == null || events.isEmpty() || events.size() < size) {
+            return null;
+        }
+        return after.apply(events.get(events.size() - 1), order).encode();
+    }
+
+    @Override
+    public List<EventShortDto> getShortEvents(List<Long> eventIds) {
+        return toShortDtos(findShortViews(eventIds));
+    }
+
+    private List<EventShortDto> toShortDtos(List<EventShortView> events) {
+        List<Long> ids = events.stream().map(EventShortView::getId).collect(Collectors.toList());
+        Map<Long, Long> views = getViewsCount(ids, events.stream().map(EventShortView::getPublishedOn));
 
         return events.stream()
-                .map(event -> convertToFullDto(event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
-                        views.getOrDefault(event.getId(), 0L)))
+                .map(event -> convertToShortDto(event, views.getOrDefault(event.getId(), 0L)))
                 .collect(Collectors.toList());
     }
 
@@ -277,54 +343,78 @@ public class EventServiceImpl implements EventService {
         }
 
         Event updatedEvent = eventRepository.save(event);
-        Long confirmedRequests = requestRepository.countConfirmedRequestsByEventId(eventId);
-        Long views = getViewsCount(List.of(updatedEvent)).getOrDefault(eventId, 0L);
+        eventSearchEngine.onEventChanged(updatedEvent);
+        eventDetailCache.invalidate(eventId);
+        // Опубликованное событие администратор может только изменить, снять с публикации - нет
+        if (updatedEvent.getState() == EventState.PUBLISHED) {
+            searchResultCache.onEventsChanged();
+        }
+        Long views = getViewsCount(updatedEvent).getOrDefault(eventId, 0L);
 
         log.info("Event id: {} updated successfully by admin", eventId);
-        return convertToFullDto(updatedEvent, confirmedRequests, views);
+        return convertToFullDto(updatedEvent, views);
     }
 
     @Override
-    public List<EventShortDto> getPublicEvents(PublicEventSearchRequest searchRequest, HttpServletRequest request) {
-        log.info("Public: поиск событий text='{}', categories={}, paid={}",
-                searchRequest.getText(), searchRequest.getCategories(), searchRequest.getPaid());
+    public CursorPage<EventShortDto> getPublicEvents(PublicEventSearchRequest searchRequest, HttpServletRequest request) {
+        log.info("Public: поиск событий text='{}', textMode={}, categories={}, paid={}",
+                searchRequest.getText(), searchRequest.getTextMode(), searchRequest.getCategories(), searchRequest.getPaid());
 
-        // Используем Specification для фильтрации
-        Specification<Event> spec = buildPublicSpecification(
-                searchRequest.getText(),
-                searchRequest.getCategories(),
-                searchRequest.getPaid(),
-                searchRequest.getRangeStart(),
-                searchRequest.getRangeEnd(),
-                searchRequest.getOnlyAvailable()
-        );
-
-        List<Event> events = eventRepository.findAll(spec, searchRequest.getPageable()).getContent();
+        CursorPage<EventShortDto> page = searchResultCache.get(searchRequest, () -> searchPublicEvents(searchRequest));
 
         saveEndpointHit(request, "/events");
 
-        Map<Long, Long> confirmedRequests = getConfirmedRequestsCount(events);
-        Map<Long, Long> views = getViewsCount(events);
+        log.info("Found {} events after filtering", page.getContent().size());
+        return page;
+    }
 
-        List<EventShortDto> result = events.stream()
-                .map(event -> convertToShortDto(event,
-                        confirmedRequests.getOrDefault(event.getId(), 0L),
-                        views.getOrDefault(event.getId(), 0L)))
-                .collect(Collectors.toList());
+    private CursorPage<EventShortDto> searchPublicEvents(PublicEventSearchRequest searchRequest) {
+        List<EventShortView> events;
+        if (eventSearchEngine.supports(searchRequest)) {
+            events = searchWithEngine(searchRequest);
+        } else {
+            // Используем Specification для фильтрации
+            Specification<Event> spec = buildPublicSpecification(
+                    searchRequest.getText(),
+                    searchRequest.getTextMode(),
+                    searchRequest.getCategories(),
+                    searchRequest.getPaid(),
+                    searchRequest.getRangeStart(),
+                    searchRequest.getRangeEnd(),
+                    searchRequest.getOnlyAvailable()
+            );
+            events = findShortViews(findPageIds(spec, searchRequest.getPageable(), searchRequest.getAfter()));
+        }
+
+        return new CursorPage<>(toShortDtos(events),
+                nextCursor(events, searchRequest.getSize(), searchRequest.getOrder(), EventCursor::after));
+    }
 
-        // Сортировка
-        if ("VIEWS".equals(searchRequest.getSort())) {
-            result.sort(Comparator.comparing(EventShortDto::getViews).reversed());
-        } else if ("EVENT_DATE".equals(searchRequest.getSort())) {
-            result.sort(Comparator.comparing(EventShortDto::getEventDate));
+    /**
+     * Страница, отобранная поисковым движком в памяти. Индекс обновляется после фиксации, поэтому в нём
+     * ещё могут быть события, снятые с публикации или удалённые за это время: они отбрасываются,
+     * а недостающие до полной страницы события добираются из индекса следующими порциями.
+     */
+    private List<EventShortView> searchWithEngine(PublicEventSearchRequest searchRequest) {
+        int size = searchRequest.getSize();
+        List<EventShortView> events = new ArrayList<>(size);
+        int skip = 0;
+        while (events.size() < size) {
+            int limit = size - events.size();
+            List<Long> ids = eventSearchEngine.search(searchRequest, skip, limit);
+            skip += ids.size();
+            findShortViews(ids).stream()
+                    .filter(event -> event.getState() == EventState.PUBLISHED)
+                    .forEach(events::add);
+            if (ids.size() < limit) {
+                break;
+            }
         }
-
-        log.info("Found {} events after filtering", result.size());
-        return result;
+        return events;
     }
 
-
-    private Specification<Event> buildPublicSpecification(String text, List<Long> categories, Boolean paid,
+    private Specification<Event> buildPublicSpecification(String text, TextSearchMode textMode,
+                                                          List<Long> categories, Boolean paid,
                                                           LocalDateTime rangeStart, LocalDateTime rangeEnd,
                                                           Boolean onlyAvailable) {
         return (root, query, cb) -> {
@@ -335,12 +425,7 @@ public class EventServiceImpl implements EventService {
 
             // ФИЛЬТР ПО ТЕКСТУ (аннотация + описание)
             if (text != null && !text.isBlank()) {
-                String searchText = "%" + text.toLowerCase() + "%";
-                Predicate textPredicate = cb.or(
-                        cb.like(cb.lower(root.get("annotation")), searchText),
-                        cb.like(cb.lower(root.get("description")), searchText)
-                );
-                predicates.add(textPredicate);
+                predicates.add(eventTextSearch.toPredicate(root, query, cb, text, textMode));
             }
 
             // ФИЛЬТР ПО КАТЕГОРИЯМ
@@ -376,25 +461,40 @@ public class EventServiceImpl implements EventService {
         };
     }
 
+    /**
+     * Транзакция открывается только на чтение события из базы: отправка хита и запрос просмотров
+     * к сервису статистики идут без неё и не держат соединение с базой.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EventFullDto getPublicEventById(Long eventId, HttpServletRequest request) {
         log.info("Getting public event by id: {}", eventId);
 
-        Event event = eventRepository.findByIdAndState(eventId, EventState.PUBLISHED)
-                .orElseThrow(() -> new NotFoundException("Event with id=" + eventId + " was not found"));
-
-        // ОТПРАВЛЯЕМ ХИТ В СТАТИСТИКУ
-        saveEndpointHit(request, "/events/" + eventId);
-
-
-        Long confirmedRequests = requestRepository.countConfirmedRequestsByEventId(eventId);
-
+        // Хит отправляется только для существующего события и до подсчёта просмотров,
+        // поэтому при загрузке карточки он уходит из загрузчика, а при ответе из кэша - после него
+        AtomicBoolean hitSaved = new AtomicBoolean();
+        EventFullDto eventDto = eventDetailCache.get(eventId, id -> {
+            EventFullDto event = readOnlyTransaction().execute(status ->
+                    eventRepository.findByIdAndState(id, EventState.PUBLISHED)
+                            .map(found -> convertToFullDto(found, 0L))
+                            .orElse(null));
+            if (event == null) {
+                return null;
+            }
 
-        Long views = getViewsCount(List.of(event)).getOrDefault(eventId, 0L);
+            // ОТПРАВЛЯЕМ ХИТ В СТАТИСТИКУ
+            saveEndpointHit(request, "/events/" + id);
+            hitSaved.set(true);
 
-        log.info("Event {} has {} views from stats service", eventId, views);
+            Long views = getViewsCount(event);
+            log.info("Event {} has {} views from stats service", id, views);
+            return event.toBuilder().views(views).build();
+        }, this::getViewsCount).orElseThrow(() -> new NotFoundException("Event with id=" + eventId + " was not found"));
 
-        return convertToFullDto(event, confirmedRequests, views);
+        if (!hitSaved.get()) {
+            saveEndpointHit(request, "/events/" + eventId);
+        }
+        return eventDto;
     }
 
     private void updateEventFields(Event event, UpdateEventUserRequest updateRequest) {
@@ -402,8 +502,7 @@ public class EventServiceImpl implements EventService {
             event.setAnnotation(updateRequest.getAnnotation());
         }
         if (updateRequest.getCategory() != null) {
-            Category category = categoryRepository.findById(updateRequest.getCategory())
-                    .orElseThrow(() -> new NotFoundException("Category with id=" + updateRequest.getCategory() + " was not found"));
+            Category category = getCategoryReference(updateRequest.getCategory());
             event.setCategory(category);
         }
         if (updateRequest.getDescription() != null) {
@@ -435,8 +534,7 @@ public class EventServiceImpl implements EventService {
             event.setAnnotation(updateRequest.getAnnotation());
         }
         if (updateRequest.getCategory() != null) {
-            Category category = categoryRepository.findById(updateRequest.getCategory())
-                    .orElseThrow(() -> new NotFoundException("Category with id=" + updateRequest.getCategory() + " was not found"));
+            Category category = getCategoryReference(updateRequest.getCategory());
             event.setCategory(category);
         }
         if (updateRequest.getDescription() != null && !updateRequest.getDescription().isBlank()) {
@@ -463,83 +561,59 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private Map<Long, Long> getConfirmedRequestsCount(List<Event> events) {
-        List<Long> eventIds = events.stream().map(Event::getId).collect(Collectors.toList());
-
-        if (eventIds.isEmpty()) {
-            return new HashMap<>();
-        }
-
-        List<Object[]> results = requestRepository.countConfirmedRequestsByEventIds(eventIds);
-        Map<Long, Long> counts = new HashMap<>();
-
-        for (Object[] result : results) {
-            counts.put((Long) result[0], (Long) result[1]);
-        }
-
-        for (Event event : events) {
-            counts.putIfAbsent(event.getId(), 0L);
-        }
+    private Map<Long, Long> getViewsCount(Event event) {
+        return getViewsCount(List.of(event.getId()), Stream.of(event.getPublishedOn()));
+    }
 
-        return counts;
+    private Long getViewsCount(EventFullDto event) {
+        return getViewsCount(List.of(event.getId()), Stream.of(event.getPublishedOn())).getOrDefault(event.getId(), 0L);
     }
 
-    @Override
-    public Map<Long, Long> getViewsCount(List<Event> events) {
-        if (events.isEmpty()) {
+    private Map<Long, Long> getViewsCount(List<Long> ids, Stream<LocalDateTime> publicationDates) {
+        if (ids.isEmpty()) {
             return new HashMap<>();
         }
 
-        List<String> uris = events.stream()
-                .map(event -> "/events/" + event.getId())
-                .collect(Collectors.toList());
+        long[] eventIds = ids.stream()
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
 
         // ИСПРАВЛЕНИЕ: получаем дату публикации самого раннего события
-        LocalDateTime start = getEarliestPublicationDate(events);
+        LocalDateTime start = getEarliestPublicationDate(publicationDates);
         LocalDateTime end = LocalDateTime.now();
 
         try {
-            List<ViewStats> stats = statsClient.getStats(start, end, uris, true);
+            EventViewStats stats = statsClient.getEventViews(eventIds, start, end, true);
 
             Map<Long, Long> views = new HashMap<>();
-            for (ViewStats stat : stats) {
-                Long eventId = extractEventIdFromUri(stat.getUri());
-                views.put(eventId, stat.getHits());
+            for (int i = 0; i < stats.size(); i++) {
+                views.put(stats.getEventIds()[i], stats.getHits()[i]);
             }
 
-            for (Event event : events) {
-                views.putIfAbsent(event.getId(), 0L);
+            for (Long eventId : ids) {
+                views.putIfAbsent(eventId, 0L);
             }
 
             return views;
         } catch (Exception e) {
             log.error("Error getting views count from stats service", e);
             Map<Long, Long> fallback = new HashMap<>();
-            for (Event event : events) {
-                fallback.put(event.getId(), 0L);
+            for (Long eventId : ids) {
+                fallback.put(eventId, 0L);
             }
             return fallback;
         }
     }
 
     // НОВЫЙ метод для получения самой ранней даты публикации
-    private LocalDateTime getEarliestPublicationDate(List<Event> events) {
-        return events.stream()
-                .filter(event -> event.getPublishedOn() != null) // только опубликованные события
-                .map(Event::getPublishedOn)
+    private LocalDateTime getEarliestPublicationDate(Stream<LocalDateTime> publicationDates) {
+        return publicationDates
+                .filter(Objects::nonNull) // только опубликованные события
                 .min(LocalDateTime::compareTo)
                 .orElse(LocalDateTime.now().minusYears(1)); // fallback: год назад, если нет опубликованных
     }
 
-    private Long extractEventIdFromUri(String uri) {
-        try {
-            return Long.parseLong(uri.substring(uri.lastIndexOf("/") + 1));
-        } catch (NumberFormatException e) {
-            log.warn("Invalid event ID in URI: {}", uri);
-            return -1L;
-        }
-    }
-
     private void saveEndpointHit(HttpServletRequest request, String uri) {
         try {
             EndpointHit endpointHit = EndpointHit.builder()
@@ -563,7 +637,13 @@ public class EventServiceImpl implements EventService {
         return request.getRemoteAddr();
     }
 
-    private EventFullDto convertToFullDto(Event event, Long confirmedRequests, Long views) {
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private EventFullDto convertToFullDto(Event event, Long views) {
         if (event == null) {
             return null;
         }
@@ -572,7 +652,7 @@ public class EventServiceImpl implements EventService {
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .category(convertToDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests != null ? confirmedRequests : 0L)
+                .confirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests().longValue() : 0L)
                 .createdOn(event.getCreatedOn())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
@@ -593,25 +673,40 @@ public class EventServiceImpl implements EventService {
                 .build();
     }
 
-    private EventShortDto convertToShortDto(Event event, Long confirmedRequests, Long views) {
-        if (event == null) {
-            return null;
-        }
-
+    private EventShortDto convertToShortDto(EventShortView event, Long views) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(convertToDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests != null ? confirmedRequests : 0L)
+                .category(CategoryDto.builder()
+                        .id(event.getCategoryId())
+                        .name(event.getCategoryName())
+                        .build())
+                .confirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests().longValue() : 0L)
                 .eventDate(event.getEventDate())
-                .initiator(convertToShortDto(event.getInitiator()))
+                .initiator(UserShortDto.builder()
+                        .id(event.getInitiatorId())
+                        .name(event.getInitiatorName())
+                        .build())
                 .paid(event.getPaid() != null ? event.getPaid() : false)
                 .title(event.getTitle())
                 .views(views != null ? views : 0L)
                 .build();
     }
 
+    // Категория проверяется по снимку справочника, для связи события достаточно ссылки без загрузки сущности
+    private Category getCategoryReference(Long categoryId) {
+        if (referenceDataCache.getCategory(categoryId).isEmpty()) {
+            throw new NotFoundException("Category with id=" + categoryId + " was not found");
+        }
+        return categoryRepository.getReferenceById(categoryId);
+    }
+
+    // Связанные сущности не загружаются: у прокси берётся только id, данные - из справочного кэша
     private UserShortDto convertToShortDto(User user) {
+        UserShortDto cached = referenceDataCache.getUser(user.getId());
+        if (cached != null) {
+            return cached;
+        }
         return UserShortDto.builder()
                 .id(user.getId())
                 .name(user.getName())
@@ -619,9 +714,10 @@ public class EventServiceImpl implements EventService {
     }
 
     private CategoryDto convertToDto(Category category) {
-        return CategoryDto.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .build();
+        return referenceDataCache.getCategory(category.getId())
+                .orElseGet(() -> CategoryDto.builder()
+                        .id(category.getId())
+                        .name(category.getName())
+                        .build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Event;
+import ru.practicum.model.TextSearchMode;
+import ru.practicum.repository.TextSearchFunctions;
+
+/**
+ * Условие поиска по тексту для публичного поиска событий.
+ * SUBSTRING на PostgreSQL обслуживается триграммными GIN-индексами по lower(annotation) и lower(description),
+ * FULLTEXT - GIN-индексом по tsvector и сортирует результат по релевантности, если не задана другая сортировка.
+ * Если функции полнотекстового поиска не зарегистрированы (H2), FULLTEXT выполняется как SUBSTRING.
+ */
+@Slf4j
+@Component
+public class EventTextSearch {
+
+    private final boolean fullTextSupported;
+
+    public EventTextSearch(EntityManagerFactory entityManagerFactory) {
+        this.fullTextSupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine()
+                .getSqmFunctionRegistry()
+                .findFunctionDescriptor(TextSearchFunctions.MATCH) != null;
+        if (!fullTextSupported) {
+            log.info("Full-text event search is not supported by the database, textMode=FULLTEXT falls back to substring search");
+        }
+    }
+
+    public boolean isFullTextSupported() {
+        return fullTextSupported;
+    }
+
+    public Predicate toPredicate(Root<Event> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                 String text, TextSearchMode mode) {
+        if (mode == TextSearchMode.FULLTEXT && fullTextSupported) {
+            // Текст передаётся параметром: literal() внутри функции Hibernate подставляет в SQL как строку
+            Expression<String> terms = ((HibernateCriteriaBuilder) cb).value(text);
+            Expression<Boolean> match = cb.function(TextSearchFunctions.MATCH, Boolean.class,
+                    root.get("annotation"), root.get("description"), terms);
+            // Ранжирование нужно только выборке; в запросе количества сортировка не применяется
+            if (query.getResultType() != Long.class && query.getOrderList().isEmpty()) {
+                Expression<Double> rank = cb.function(TextSearchFunctions.RANK, Double.class,
+                        root.get("annotation"), root.get("description"), terms);
+                query.orderBy(cb.desc(rank), cb.asc(root.get("id")));
+            }
+            return cb.isTrue(match);
+        }
+
+        String searchText = "%" + text.toLowerCase() + "%";
+        return cb.or(
+                cb.like(cb.lower(root.get("annotation")), searchText),
+                cb.like(cb.lower(root.get("description")), searchText)
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.StatsClient;
+import ru.practicum.statsdto.EventViewStats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Поддерживает колонку events.views в актуальном состоянии, чтобы сортировка по просмотрам
+ * и пагинация выполнялись одним SQL-запросом.
+ * Каждый запуск спрашивает у stats-server, у каких событий появились хиты после водяного знака,
+ * и пересчитывает уникальные просмотры только для них. Водяной знак сдвигается назад на overlap,
+ * чтобы учесть хиты, доставленные с опозданием (например, из локальной очереди клиента).
+ * Первый проход после запуска и далее каждые full-interval пересчитывают все события: клиент статистики
+ * не сообщает об ошибках, и пустой ответ недоступного сервера нельзя отличить от отсутствия хитов.
+ * Запросы к stats-server идут вне транзакции, транзакция открывается только на пакетный UPDATE.
+ */
+@Slf4j
+@Component
+public class EventViewsSync {
+
+    // Раньше этой даты хитов быть не может: берётся как начало "за всё время"
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final StatsClient statsClient;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration overlap;
+    private final Duration fullInterval;
+
+    private LocalDateTime watermark;
+    private LocalDateTime lastFullSync;
+
+    public EventViewsSync(StatsClient statsClient,
+                          NamedParameterJdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${ewm.views.sync.overlap:5m}") Duration overlap,
+                          @Value("${ewm.views.sync.full-interval:1h}") Duration fullInterval) {
+        this.statsClient = statsClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.overlap = overlap;
+        this.fullInterval = fullInterval;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.views.sync.interval-ms:10000}")
+    public synchronized void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean full = watermark == null || lastFullSync.isBefore(now.minus(fullInterval));
+        LocalDateTime from = full ? EPOCH : watermark.minus(overlap);
+
+        EventViewStats views;
+        if (full) {
+            // Полный проход получает просмотры всех событий одним запросом к каждому шарду, без списка id
+            views = statsClient.getAllEventViews(EPOCH, now, true);
+        } else {
+            EventViewStats touched = statsClient.getAllEventViews(from, now, false);
+            views = touched.size() > 0
+                    ? statsClient.getEventViews(touched.getEventIds(), EPOCH, now, true)
+                    : EventViewStats.empty();
+
+            // У каждого затронутого события есть хотя бы один хит, поэтому пропуск означает сбой шарда
+            if (views.size() < touched.size()) {
+                log.warn("Views sync skipped: stats service returned {} of {} events", views.size(), touched.size());
+                return;
+            }
+        }
+
+        if (views.size() > 0) {
+            MapSqlParameterSource[] batch = new MapSqlParameterSource[views.size()];
+            for (int i = 0; i < views.size(); i++) {
+                batch[i] = new MapSqlParameterSource()
+                        .addValue("id", views.getEventIds()[i])
+                        .addValue("views", views.getHits()[i]);
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE events SET views = :views WHERE id = :id AND views <> :views", batch));
+            log.debug("Views refreshed for {} events touched since {}", views.size(), from);
+        }
+
+        if (full) {
+            lastFullSync = now;
+        }
+        watermark = now;
+    }
+}
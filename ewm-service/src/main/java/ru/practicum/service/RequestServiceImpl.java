@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.EventDetailCache;
 import ru.practicum.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
@@ -16,11 +17,15 @@ import ru.practicum.model.RequestStatus;
 import ru.practicum.model.User;
 import ru.practicum.repository.EventRepository;
 import ru.practicum.repository.ParticipationRequestRepository;
+import ru.practicum.repository.RequestStatusCheck;
 import ru.practicum.repository.UserRepository;
+import ru.practicum.search.EventSearchEngine;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +34,13 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
 
+    private static final int IN_BATCH_SIZE = 1000;
+
     private final ParticipationRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final EventSearchEngine eventSearchEngine;
+    private final EventDetailCache eventDetailCache;
 
     @Override
     @Transactional
@@ -56,18 +65,18 @@ public class RequestServiceImpl implements RequestService {
             throw new ConflictException("Нельзя добавить повторный запрос");
         }
 
-        // Проверка лимита участников - ИСПРАВЛЕННЫЙ ВЫЗОВ
-        if (event.getParticipantLimit() > 0) {
-            long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-            if (confirmedRequests >= event.getParticipantLimit()) {
-                throw new ConflictException("Достигнут лимит запросов на участие");
-            }
+        // Проверка лимита участников по счётчику события; окончательно место занимает условный UPDATE ниже
+        if (event.getParticipantLimit() > 0 && event.getConfirmedRequests() >= event.getParticipantLimit()) {
+            throw new ConflictException("Достигнут лимит запросов на участие");
         }
 
         // Определяем статус заявки
         RequestStatus status = RequestStatus.PENDING;
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
             status = RequestStatus.CONFIRMED;
+            if (!addConfirmedRequests(eventId, 1)) {
+                throw new ConflictException("Достигнут лимит запросов на участие");
+            }
         }
 
         ParticipationRequest request = ParticipationRequest.builder()
@@ -90,11 +99,19 @@ public class RequestServiceImpl implements RequestService {
         ParticipationRequest request = requestRepository.findByIdAndRequesterId(requestId, userId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден"));
 
-        request.setStatus(RequestStatus.CANCELED);
-        ParticipationRequest updatedRequest = requestRepository.save(request);
+        // Статус меняется условным UPDATE: место освобождает только та отмена, которая действительно
+        // перевела заявку из CONFIRMED, даже если одновременно пришла вторая отмена или решение инициатора
+        RequestStatus previous = request.getStatus();
+        Long eventId = request.getEvent().getId();
+        if (requestRepository.updateStatuses(List.of(requestId), eventId, previous, RequestStatus.CANCELED) == 0) {
+            throw new ConflictException("Статус заявки был изменён одновременно с этим запросом");
+        }
+        if (previous == RequestStatus.CONFIRMED) {
+            addConfirmedRequests(eventId, -1);
+        }
 
         log.info("Отменен запрос на участие с id={}", requestId);
-        return mapToParticipationRequestDto(updatedRequest);
+        return findDtos(List.of(requestId)).get(0);
     }
 
     @Override
@@ -134,69 +151,52 @@ public class RequestServiceImpl implements RequestService {
     public ParticipationRequestDto confirmRequest(Long userId, Long eventId, Long reqId) {
         log.info("Начало подтверждения заявки: userId={}, eventId={}, reqId={}", userId, eventId, reqId);
 
-        try {
-            Event event = eventRepository.findById(eventId)
-                    .orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
-            log.debug("Событие найдено: id={}, initiatorId={}, limit={}",
-                    eventId, event.getInitiator().getId(), event.getParticipantLimit());
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
+        log.debug("Событие найдено: id={}, initiatorId={}, limit={}",
+                eventId, event.getInitiator().getId(), event.getParticipantLimit());
 
-            // Проверка, что пользователь является инициатором события
-            if (!event.getInitiator().getId().equals(userId)) {
-                log.warn("Пользователь {} не является инициатором события {}", userId, event.getInitiator().getId());
-                throw new ValidationException("Пользователь не является инициатором события");
-            }
+        // Проверка, что пользователь является инициатором события
+        if (!event.getInitiator().getId().equals(userId)) {
+            log.warn("Пользователь {} не является инициатором события {}", userId, event.getInitiator().getId());
+            throw new ValidationException("Пользователь не является инициатором события");
+        }
 
-            ParticipationRequest request = requestRepository.findById(reqId)
-                    .orElseThrow(() -> new NotFoundException("Запрос с id=" + reqId + " не найден"));
-            log.debug("Запрос найден: id={}, status={}, eventId={}",
-                    reqId, request.getStatus(), request.getEvent().getId());
+        ParticipationRequest request = requestRepository.findById(reqId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id=" + reqId + " не найден"));
+        log.debug("Запрос найден: id={}, status={}, eventId={}",
+                reqId, request.getStatus(), request.getEvent().getId());
 
-            if (!request.getStatus().equals(RequestStatus.PENDING)) {
-                log.warn("Некорректный статус заявки: ожидался PENDING, получен {}", request.getStatus());
-                throw new ConflictException("Статус заявки должен быть PENDING");
-            }
+        if (!request.getStatus().equals(RequestStatus.PENDING)) {
+            log.warn("Некорректный статус заявки: ожидался PENDING, получен {}", request.getStatus());
+            throw new ConflictException("Статус заявки должен быть PENDING");
+        }
 
-            // Проверка лимита участников
-            if (event.getParticipantLimit() > 0) {
-                long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-                log.debug("Проверка лимита: limit={}, confirmed={}",
-                        event.getParticipantLimit(), confirmedRequests);
-
-                if (confirmedRequests >= event.getParticipantLimit()) {
-                    log.warn("Лимит участников достигнут: eventId={}, limit={}, confirmed={}",
-                            eventId, event.getParticipantLimit(), confirmedRequests);
-                    throw new ConflictException("Достигнут лимит участников");
-                }
-            } else {
-                log.debug("Лимит участников не установлен или равен 0");
-            }
+        // Заявка переводится из PENDING условным UPDATE, и место занимается только при успехе:
+        // параллельное подтверждение той же заявки не увеличит счётчик второй раз
+        updatePendingStatuses(List.of(reqId), eventId, RequestStatus.CONFIRMED);
 
-            request.setStatus(RequestStatus.CONFIRMED);
-            ParticipationRequest confirmedRequest = requestRepository.save(request);
-            log.debug("Заявка подтверждена: id={}", reqId);
+        // Проверка лимита участников и занятие места одним условным UPDATE
+        if (!addConfirmedRequests(eventId, 1)) {
+            log.warn("Лимит участников достигнут: eventId={}, limit={}", eventId, event.getParticipantLimit());
+            throw new ConflictException("Достигнут лимит участников");
+        }
+        log.debug("Заявка подтверждена: id={}", reqId);
 
-            // Если лимит достигнут, отклонить все оставшиеся заявки
-            if (event.getParticipantLimit() > 0) {
-                long currentConfirmed = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-                log.debug("Проверка лимита после подтверждения: limit={}, currentConfirmed={}",
-                        event.getParticipantLimit(), currentConfirmed);
+        // Если лимит достигнут, отклонить все оставшиеся заявки
+        if (event.getParticipantLimit() > 0) {
+            long currentConfirmed = eventRepository.findConfirmedRequests(eventId);
+            log.debug("Проверка лимита после подтверждения: limit={}, currentConfirmed={}",
+                    event.getParticipantLimit(), currentConfirmed);
 
-                if (currentConfirmed >= event.getParticipantLimit()) {
-                    log.info("Лимит достигнут после подтверждения, отклоняем ожидающие заявки");
-                    rejectPendingRequests(eventId);
-                }
+            if (currentConfirmed >= event.getParticipantLimit()) {
+                log.info("Лимит достигнут после подтверждения, отклоняем ожидающие заявки");
+                rejectPendingRequests(eventId);
             }
-
-            log.info("Заявка успешно подтверждена: id={}", reqId);
-            return mapToParticipationRequestDto(confirmedRequest);
-
-        } catch (ConflictException e) {
-            log.error("ConflictException в confirmRequest: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("Неожиданная ошибка в confirmRequest: {}", e.getMessage(), e);
-            throw new RuntimeException("Внутренняя ошибка сервера", e);
         }
+
+        log.info("Заявка успешно подтверждена: id={}", reqId);
+        return findDtos(List.of(reqId)).get(0);
     }
 
     @Override
@@ -225,30 +225,24 @@ public class RequestServiceImpl implements RequestService {
     }
 
     private void rejectPendingRequests(Long eventId) {
-        try {
-            List<ParticipationRequest> pendingRequests = requestRepository.findByEventIdAndStatus(eventId, RequestStatus.PENDING);
-            log.debug("Найдено {} ожидающих заявок для события {}", pendingRequests.size(), eventId);
-
-            if (!pendingRequests.isEmpty()) {
-                for (ParticipationRequest request : pendingRequests) {
-                    request.setStatus(RequestStatus.REJECTED);
-                    log.debug("Заявка {} отклонена автоматически", request.getId());
-                }
-                requestRepository.saveAll(pendingRequests);
-                log.info("Отклонены {} ожидающих заявок для события {}", pendingRequests.size(), eventId);
-            }
-        } catch (Exception e) {
-            log.error("Ошибка при отклонении ожидающих заявок: {}", e.getMessage(), e);
-            throw e;
+        int rejected = requestRepository.updateStatusesByEventId(eventId, RequestStatus.PENDING, RequestStatus.REJECTED);
+        if (rejected > 0) {
+            log.info("Отклонены {} ожидающих заявок для события {}", rejected, eventId);
         }
     }
 
+    /**
+     * Заявки меняются набором: принадлежность событию и статус проверяются одним агрегирующим запросом,
+     * статусы меняются массовыми UPDATE, а ответ строится из обновлённых строк без загрузки сущностей.
+     */
     @Override
     @Transactional
     public EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId,
                                                                 EventRequestStatusUpdateRequest updateRequest) {
-        log.info("Обновление статусов заявок: userId={}, eventId={}, requestIds={}, status={}",
-                userId, eventId, updateRequest.getRequestIds(), updateRequest.getStatus());
+        // Заявки обрабатываются в порядке запроса: при нехватке мест подтверждаются первые из списка
+        List<Long> requestIds = updateRequest.getRequestIds();
+        log.info("Обновление статусов заявок: userId={}, eventId={}, заявок={}, status={}",
+                userId, eventId, requestIds.size(), updateRequest.getStatus());
 
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено"));
@@ -258,70 +252,130 @@ public class RequestServiceImpl implements RequestService {
             throw new ValidationException("Пользователь не является инициатором события");
         }
 
-        List<ParticipationRequest> requests = requestRepository.findAllById(updateRequest.getRequestIds());
-
-        // Проверка, что найдены все запросы
-        if (requests.size() != updateRequest.getRequestIds().size()) {
-            throw new NotFoundException("Некоторые заявки не найдены");
-        }
-
-        // Проверка, что все заявки принадлежат событию и в статусе PENDING
-        for (ParticipationRequest request : requests) {
-            if (!request.getEvent().getId().equals(eventId)) {
-                throw new ValidationException("Заявка с id=" + request.getId() + " не принадлежит событию с id=" + eventId);
-            }
-            if (!request.getStatus().equals(RequestStatus.PENDING)) {
-                throw new ConflictException("Заявка с id=" + request.getId() + " должна быть в статусе PENDING");
-            }
+        if (!updateRequest.getStatus().equals("CONFIRMED") && !updateRequest.getStatus().equals("REJECTED")) {
+            throw new ValidationException("Некорректный статус: " + updateRequest.getStatus());
         }
 
-        List<ParticipationRequestDto> confirmedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> rejectedRequests = new ArrayList<>();
+        // Проверка, что найдены все запросы, все принадлежат событию и находятся в статусе PENDING
+        checkPendingRequests(requestIds, eventId);
 
+        List<Long> confirmedIds = List.of();
+        List<Long> rejectedIds = requestIds;
         if (updateRequest.getStatus().equals("CONFIRMED")) {
             // Логика подтверждения заявок с учетом лимита участников
-            long confirmedCount = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-            long availableSlots = event.getParticipantLimit() - confirmedCount;
-
-            for (int i = 0; i < requests.size(); i++) {
-                ParticipationRequest request = requests.get(i);
-                if (i < availableSlots) {
-                    request.setStatus(RequestStatus.CONFIRMED);
-                    confirmedRequests.add(mapToParticipationRequestDto(request));
-                } else {
-                    request.setStatus(RequestStatus.REJECTED);
-                    rejectedRequests.add(mapToParticipationRequestDto(request));
-                }
-            }
-
-            requestRepository.saveAll(requests);
+            int availableSlots = reserveConfirmedRequests(event, requestIds.size());
+            confirmedIds = requestIds.subList(0, availableSlots);
+            rejectedIds = requestIds.subList(availableSlots, requestIds.size());
+        }
 
-            // Если после подтверждения лимит достигнут, отклоняем все оставшиеся PENDING заявки
-            if (event.getParticipantLimit() > 0 &&
-                    (confirmedCount + confirmedRequests.size() >= event.getParticipantLimit())) {
-                rejectPendingRequests(eventId);
-            }
+        updatePendingStatuses(confirmedIds, eventId, RequestStatus.CONFIRMED);
+        updatePendingStatuses(rejectedIds, eventId, RequestStatus.REJECTED);
 
-        } else if (updateRequest.getStatus().equals("REJECTED")) {
-            // Логика отклонения заявок
-            for (ParticipationRequest request : requests) {
-                request.setStatus(RequestStatus.REJECTED);
-                rejectedRequests.add(mapToParticipationRequestDto(request));
-            }
-            requestRepository.saveAll(requests);
-        } else {
-            throw new ValidationException("Некорректный статус: " + updateRequest.getStatus());
+        // Если после подтверждения лимит достигнут, отклоняем все оставшиеся PENDING заявки
+        if (!confirmedIds.isEmpty() && event.getParticipantLimit() > 0
+                && eventRepository.findConfirmedRequests(eventId) >= event.getParticipantLimit()) {
+            rejectPendingRequests(eventId);
         }
 
         log.info("Обновлены статусы заявок: подтверждено={}, отклонено={}",
-                confirmedRequests.size(), rejectedRequests.size());
+                confirmedIds.size(), rejectedIds.size());
 
         return EventRequestStatusUpdateResult.builder()
-                .confirmedRequests(confirmedRequests)
-                .rejectedRequests(rejectedRequests)
+                .confirmedRequests(findDtos(confirmedIds))
+                .rejectedRequests(findDtos(rejectedIds))
                 .build();
     }
 
+    private void checkPendingRequests(List<Long> requestIds, Long eventId) {
+        long found = 0;
+        Long foreignId = null;
+        Long notPendingId = null;
+        for (List<Long> batch : batches(requestIds)) {
+            RequestStatusCheck check = requestRepository.checkRequests(batch, eventId, RequestStatus.PENDING);
+            found += check.getFound();
+            foreignId = min(foreignId, check.getForeignId());
+            notPendingId = min(notPendingId, check.getNotPendingId());
+        }
+
+        if (found != requestIds.size()) {
+            throw new NotFoundException("Некоторые заявки не найдены");
+        }
+        if (foreignId != null) {
+            throw new ValidationException("Заявка с id=" + foreignId + " не принадлежит событию с id=" + eventId);
+        }
+        if (notPendingId != null) {
+            throw new ConflictException("Заявка с id=" + notPendingId + " должна быть в статусе PENDING");
+        }
+    }
+
+    // Статус меняется только у заявок, всё ещё ожидающих решения; если параллельная транзакция
+    // успела изменить какую-то из них, изменения откатываются вместе с занятыми местами
+    private void updatePendingStatuses(List<Long> requestIds, Long eventId, RequestStatus status) {
+        int updated = 0;
+        for (List<Long> batch : batches(requestIds)) {
+            updated += requestRepository.updateStatuses(batch, eventId, RequestStatus.PENDING, status);
+        }
+        if (updated != requestIds.size()) {
+            throw new ConflictException("Статус некоторых заявок был изменён одновременно с этим запросом");
+        }
+    }
+
+    // Ответ строится в порядке переданных id
+    private List<ParticipationRequestDto> findDtos(List<Long> requestIds) {
+        Map<Long, ParticipationRequestDto> byId = new HashMap<>();
+        for (List<Long> batch : batches(requestIds)) {
+            requestRepository.findDtosByIdIn(batch).forEach(dto -> byId.put(dto.getId(), dto));
+        }
+        return requestIds.stream().map(byId::get).collect(Collectors.toList());
+    }
+
+    // Длинные списки id делятся на части: число параметров одного запроса в PostgreSQL ограничено
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_BATCH_SIZE) {
+            result.add(ids.subList(i, Math.min(ids.size(), i + IN_BATCH_SIZE)));
+        }
+        return result;
+    }
+
+    private static Long min(Long current, Long candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate == null ? current : Math.min(current, candidate);
+    }
+
+    /**
+     * Меняет счётчик подтверждённых заявок события в текущей транзакции, если лимит это позволяет.
+     */
+    private boolean addConfirmedRequests(Long eventId, int count) {
+        if (eventRepository.addConfirmedRequests(eventId, count) == 0) {
+            return false;
+        }
+        eventSearchEngine.onConfirmedRequestsChanged(eventId, count);
+        eventDetailCache.invalidate(eventId);
+        return true;
+    }
+
+    /**
+     * Занимает до wanted мест события и возвращает число занятых. Свободные места читаются из счётчика,
+     * а занимаются условным UPDATE; если параллельная транзакция успела занять места, попытка повторяется.
+     * Свободных мест считается limit - confirmed и при limit = 0: массовое подтверждение заявок события
+     * без лимита их отклоняет, как и раньше.
+     */
+    private int reserveConfirmedRequests(Event event, int wanted) {
+        while (true) {
+            int available = event.getParticipantLimit() - eventRepository.findConfirmedRequests(event.getId());
+            int granted = Math.min(wanted, available);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (addConfirmedRequests(event.getId(), granted)) {
+                return granted;
+            }
+        }
+    }
+
     private ParticipationRequestDto mapToParticipationRequestDto(ParticipationRequest request) {
         return ParticipationRequestDto.builder()
                 .id(request.getId())
@@ -6,6 +6,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.ReferenceDataCache;
 import ru.practicum.dto.NewUserRequest;
 import ru.practicum.dto.UserDto;
 import ru.practicum.exception.ConflictException;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     @Transactional
@@ -82,6 +84,7 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("User with id=" + userId + " was not found");
         }
         userRepository.deleteById(userId);
+        referenceDataCache.onUserDeleted(userId);
         log.info("User with id {} deleted successfully", userId);
     }
 
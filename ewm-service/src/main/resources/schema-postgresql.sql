@@ -0,0 +1,21 @@
+-- Поиск по тексту в публичном поиске событий (textMode=SUBSTRING): lower(...) LIKE '%text%'
+-- обслуживается триграммными GIN-индексами по тем же выражениям.
+-- Расширение pg_trgm создаётся разовой миграцией: при следующих запусках права на CREATE EXTENSION
+-- не нужны. Тело DO записано в одинарных кавычках, потому что скрипт делится на запросы по ';'
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = ''create-extension-pg-trgm'') THEN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+        INSERT INTO schema_migrations (id, applied_on) VALUES (''create-extension-pg-trgm'', CURRENT_TIMESTAMP);
+    END IF;
+END';
+
+DROP INDEX IF EXISTS idx_events_annotation;
+DROP INDEX IF EXISTS idx_events_description;
+
+CREATE INDEX IF NOT EXISTS idx_events_annotation_trgm ON events USING GIN (lower(annotation) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_description_trgm ON events USING GIN (lower(description) gin_trgm_ops);
+
+-- Полнотекстовый поиск (textMode=FULLTEXT): индекс по выражению поддерживается самой базой при каждой записи.
+-- Выражение должно совпадать с TextSearchFunctions, иначе индекс не будет использован
+CREATE INDEX IF NOT EXISTS idx_events_fts ON events USING GIN (
+    to_tsvector('simple', coalesce(annotation, '') || ' ' || coalesce(description, '')));
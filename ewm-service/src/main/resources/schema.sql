@@ -31,6 +31,7 @@ CREATE TABLE IF NOT EXISTS events (
                                       request_moderation BOOLEAN DEFAULT TRUE,
                                       state VARCHAR(20) DEFAULT 'PENDING',
                                       title VARCHAR(120) NOT NULL,
+                                      views BIGINT DEFAULT 0 NOT NULL,
 
     -- Внешние ключи
                                       FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE RESTRICT,
@@ -76,18 +77,42 @@ CREATE TABLE IF NOT EXISTS compilation_events (
 
 -- Создаем индексы для оптимизации запросов
 CREATE INDEX IF NOT EXISTS idx_events_category ON events(category_id);
-CREATE INDEX IF NOT EXISTS idx_events_initiator ON events(initiator_id);
+-- Составные индексы с id в конце обслуживают выдачу по курсору: условие "после ключа" и ORDER BY без сортировки
+DROP INDEX IF EXISTS idx_events_initiator;
+CREATE INDEX IF NOT EXISTS idx_events_initiator_id ON events(initiator_id, id);
 CREATE INDEX IF NOT EXISTS idx_events_state ON events(state);
 CREATE INDEX IF NOT EXISTS idx_events_event_date ON events(event_date);
 CREATE INDEX IF NOT EXISTS idx_events_published ON events(published_on);
+CREATE INDEX IF NOT EXISTS idx_events_state_views_id ON events(state, views DESC, id);
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date_id ON events(state, event_date, id);
 
 CREATE INDEX IF NOT EXISTS idx_requests_event ON requests(event_id);
+-- Таблицу создаёт Hibernate раньше schema.sql, поэтому уникальность заявки задаётся ещё и индексом
+-- для баз, созданных до появления ограничения в сущности
+CREATE UNIQUE INDEX IF NOT EXISTS uq_requests_event_requester ON requests(event_id, requester_id);
 CREATE INDEX IF NOT EXISTS idx_requests_requester ON requests(requester_id);
 CREATE INDEX IF NOT EXISTS idx_requests_status ON requests(status);
 
+-- Разовые миграции данных: скрипт выполняется при каждом запуске, а отметка здесь не даёт повторить миграцию
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    id VARCHAR(64) PRIMARY KEY,
+    applied_on TIMESTAMP NOT NULL
+);
+
+-- Счётчик подтверждённых заявок ведёт приложение (условный UPDATE в транзакции изменения заявки).
+-- Один раз сверяет его с таблицей заявок для строк, записанных до появления счётчика
+UPDATE events SET confirmed_requests = (SELECT COUNT(*) FROM requests r
+                                        WHERE r.event_id = events.id AND r.status = 'CONFIRMED')
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'reconcile-confirmed-requests')
+  AND (confirmed_requests IS NULL
+       OR confirmed_requests <> (SELECT COUNT(*) FROM requests r
+                                 WHERE r.event_id = events.id AND r.status = 'CONFIRMED'));
+INSERT INTO schema_migrations (id, applied_on)
+SELECT 'reconcile-confirmed-requests', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'reconcile-confirmed-requests');
+
 CREATE INDEX IF NOT EXISTS idx_compilation_events_event ON compilation_events(event_id);
 CREATE INDEX IF NOT EXISTS idx_compilation_events_compilation ON compilation_events(compilation_id);
 
--- Индекс для поиска по тексту в событиях (для публичного поиска)
-CREATE INDEX IF NOT EXISTS idx_events_annotation ON events(annotation);
-CREATE INDEX IF NOT EXISTS idx_events_description ON events(description);
\ No newline at end of file
+-- Индексы для поиска по тексту (триграммные и полнотекстовый) есть только в schema-postgresql.sql:
+-- обычный btree-индекс не помогает поиску подстроки LIKE '%text%'
\ No newline at end of file
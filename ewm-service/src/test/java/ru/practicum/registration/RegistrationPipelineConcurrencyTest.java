@@ -0,0 +1,186 @@
+package ru.practicum.registration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.model.Category;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.RequestStatus;
+import ru.practicum.model.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.ParticipationRequestRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.RequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Одновременная регистрация на событие с лимитом: подтверждённых заявок должно быть ровно столько,
+ * сколько мест, и сколько бы заявок ни пришло одновременно, и по какому пути они ни прошли.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stats.client.mode=embedded",
+        "ewm.views.sync.interval-ms=3600000",
+        "ewm.registration.pipeline.enabled=true",
+        // Порог 1: каждая заявка идёт через очередь секвенсора и групповую запись
+        "ewm.registration.pipeline.hot-threshold=1",
+        "ewm.registration.pipeline.batch-size=16",
+        "ewm.registration.pipeline.threads=4",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.orm.jpa=WARN",
+        "logging.level.org.springframework.transaction=WARN",
+        "logging.level.ru.practicum=WARN"
+})
+@ActiveProfiles("test")
+class RegistrationPipelineConcurrencyTest {
+
+    private static final int REQUESTS = 300;
+    private static final int LIMIT = 37;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RegistrationPipeline registrationPipeline;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void confirmsExactlyLimitThroughPipeline() throws Exception {
+        long batchesBefore = meterRegistry.timer("ewm.registration.batch").count();
+        Event event = createEvent();
+        List<Long> users = createUsers(REQUESTS);
+
+        Result result = register(users, userId -> () -> registrationPipeline.createRequest(userId, event.getId()));
+
+        assertExactlyLimit(event, result);
+        assertThat(meterRegistry.timer("ewm.registration.batch").count()).isGreaterThan(batchesBefore);
+    }
+
+    @Test
+    void confirmsExactlyLimitWhenRequestsBypassPipeline() throws Exception {
+        Event event = createEvent();
+        List<Long> users = createUsers(REQUESTS);
+
+        // Каждая вторая заявка идёт в обход очереди и спорит с групповой записью за те же места
+        AtomicInteger turn = new AtomicInteger();
+        Result result = register(users, userId -> turn.getAndIncrement() % 2 == 0
+                ? () -> registrationPipeline.createRequest(userId, event.getId())
+                : () -> requestService.createRequest(userId, event.getId()));
+
+        assertExactlyLimit(event, result);
+    }
+
+    private void assertExactlyLimit(Event event, Result result) {
+        assertThat(result.unexpected).isEmpty();
+        assertThat(result.confirmed.get()).isEqualTo(LIMIT);
+        assertThat(result.rejected.get()).isEqualTo(REQUESTS - LIMIT);
+        assertThat(requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED))
+                .isEqualTo(LIMIT);
+        assertThat(eventRepository.findConfirmedRequests(event.getId())).isEqualTo(LIMIT);
+    }
+
+    private Result register(List<Long> users, Function<Long, Callable<?>> call) throws Exception {
+        Result result = new Result();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long userId : users) {
+                Callable<?> request = call.apply(userId);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        request.call();
+                        result.confirmed.incrementAndGet();
+                    } catch (ConflictException e) {
+                        result.rejected.incrementAndGet();
+                    } catch (Exception e) {
+                        result.unexpected.add(e);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    private Event createEvent() {
+        User initiator = createUsers(1).stream().findFirst()
+                .flatMap(userRepository::findById)
+                .orElseThrow();
+        Category category = categoryRepository.save(Category.builder()
+                .name("category-" + System.nanoTime())
+                .createdAt(LocalDateTime.now())
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.save(Event.builder()
+                .title("Concert")
+                .annotation("Concert with a participant limit")
+                .description("Concert with a participant limit and no moderation")
+                .category(category)
+                .initiator(initiator)
+                .eventDate(now.plusDays(10))
+                .createdOn(now)
+                .publishedOn(now)
+                .paid(false)
+                .participantLimit(LIMIT)
+                .requestModeration(false)
+                .confirmedRequests(0)
+                .state(EventState.PUBLISHED)
+                .views(0L)
+                .build());
+    }
+
+    private List<Long> createUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "user-" + System.nanoTime() + "-" + i;
+            users.add(User.builder()
+                    .name(name)
+                    .email(name + "@example.com")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    private static class Result {
+        final AtomicInteger confirmed = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<Exception> unexpected = Collections.synchronizedList(new ArrayList<>());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.dto.CursorPage;
+import ru.practicum.dto.EventShortDto;
+import ru.practicum.dto.PublicEventSearchRequest;
+import ru.practicum.model.Category;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.UserRepository;
+import ru.practicum.service.EventService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс движка обновляется после фиксации, поэтому какое-то время в нём остаются события,
+ * уже снятые с публикации. Страница всё равно должна быть полной, а курсор - указывать на следующую.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stats.client.mode=embedded",
+        "ewm.views.sync.interval-ms=3600000",
+        "ewm.search.engine.enabled=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.orm.jpa=WARN",
+        "logging.level.org.springframework.transaction=WARN",
+        "logging.level.ru.practicum=WARN"
+})
+@ActiveProfiles("test")
+class EventSearchEngineStaleIndexTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventSearchEngine eventSearchEngine;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void pageIsFilledPastEventsUnpublishedAfterIndexing() {
+        String text = "stale-" + System.nanoTime();
+        List<Event> events = createEvents(text, 5);
+        events.forEach(eventSearchEngine::onEventChanged);
+
+        // Снятие с публикации, о котором индекс ещё не узнал
+        Event unpublished = events.get(1);
+        unpublished.setState(EventState.CANCELED);
+        eventRepository.save(unpublished);
+
+        CursorPage<EventShortDto> first = search(text, null);
+        assertThat(ids(first)).containsExactly(events.get(0).getId(), events.get(2).getId());
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorPage<EventShortDto> second = search(text, first.getNextCursor());
+        assertThat(ids(second)).containsExactly(events.get(3).getId(), events.get(4).getId());
+        assertThat(second.getNextCursor()).isNotNull();
+
+        CursorPage<EventShortDto> last = search(text, second.getNextCursor());
+        assertThat(last.getContent()).isEmpty();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    private CursorPage<EventShortDto> search(String text, String cursor) {
+        PublicEventSearchRequest request = PublicEventSearchRequest.builder()
+                .text(text)
+                .sort("EVENT_DATE")
+                .size(2)
+                .cursor(cursor)
+                .build();
+        assertThat(eventSearchEngine.supports(request)).isTrue();
+        return eventService.getPublicEvents(request, new MockHttpServletRequest("GET", "/events"));
+    }
+
+    private static List<Long> ids(CursorPage<EventShortDto> page) {
+        return page.getContent().stream().map(EventShortDto::getId).toList();
+    }
+
+    private List<Event> createEvents(String text, int count) {
+        String name = "user-" + System.nanoTime();
+        User initiator = userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .createdAt(LocalDateTime.now())
+                .build());
+        Category category = categoryRepository.save(Category.builder()
+                .name("category-" + System.nanoTime())
+                .createdAt(LocalDateTime.now())
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(eventRepository.save(Event.builder()
+                    .title("Lecture " + i)
+                    .annotation("Lecture " + text + " number " + i)
+                    .description("Lecture description " + i)
+                    .category(category)
+                    .initiator(initiator)
+                    .eventDate(now.plusDays(10 + i))
+                    .createdOn(now)
+                    .publishedOn(now)
+                    .paid(false)
+                    .participantLimit(0)
+                    .requestModeration(false)
+                    .confirmedRequests(0)
+                    .state(EventState.PUBLISHED)
+                    .views(0L)
+                    .build()));
+        }
+        return events;
+    }
+}
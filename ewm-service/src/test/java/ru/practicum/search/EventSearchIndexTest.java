@@ -0,0 +1,99 @@
+package ru.practicum.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.model.TextSearchMode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск по тексту в индексе должен совпадать с поиском через базу: FULLTEXT - с websearch_to_tsquery('simple')
+ * по аннотации и описанию, SUBSTRING - с LIKE '%text%' по тем же полям без учёта регистра.
+ */
+class EventSearchIndexTest {
+
+    private final EventSearchIndex index = new EventSearchIndex();
+
+    @Test
+    void fullTextFollowsWebSearchSyntax() {
+        index.put(document(1, "Rock concert in the park", "Open air, free entry"));
+        index.put(document(2, "Jazz concert", "Evening jazz in the park"));
+        index.put(document(3, "Park cleanup", "Bring your own gloves"));
+
+        assertThat(search("concert park", TextSearchMode.FULLTEXT)).containsExactly(1L, 2L);
+        assertThat(search("concert -jazz", TextSearchMode.FULLTEXT)).containsExactly(1L);
+        assertThat(search("rock or gloves", TextSearchMode.FULLTEXT)).containsExactly(1L, 3L);
+        assertThat(search("\"in the park\"", TextSearchMode.FULLTEXT)).containsExactly(1L, 2L);
+        assertThat(search("\"concert park\"", TextSearchMode.FULLTEXT)).isEmpty();
+        assertThat(search("-park", TextSearchMode.FULLTEXT)).isEmpty();
+        assertThat(search("conc", TextSearchMode.FULLTEXT)).isEmpty();
+    }
+
+    @Test
+    void phraseMaySpanAnnotationAndDescription() {
+        index.put(document(1, "Evening jazz", "concert for everyone"));
+
+        assertThat(search("\"jazz concert\"", TextSearchMode.FULLTEXT)).containsExactly(1L);
+    }
+
+    @Test
+    void titleIsNotSearched() {
+        index.put(EventSearchIndex.Document.builder()
+                .eventId(1)
+                .eventDate(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .annotation("Annotation text")
+                .description("Description text")
+                .build());
+
+        assertThat(search("annotation", TextSearchMode.FULLTEXT)).containsExactly(1L);
+        assertThat(search("title", TextSearchMode.FULLTEXT)).isEmpty();
+    }
+
+    @Test
+    void substringMatchesInsideTermsAndShortTokens() {
+        index.put(document(1, "Hardrock festival", "Three days of music"));
+        index.put(document(2, "Chess club", "Weekly games"));
+
+        assertThat(search("ROCK FEST", TextSearchMode.SUBSTRING)).containsExactly(1L);
+        assertThat(search("ee", TextSearchMode.SUBSTRING)).containsExactly(1L, 2L);
+        assertThat(search("s of m", TextSearchMode.SUBSTRING)).containsExactly(1L);
+        assertThat(search("rock club", TextSearchMode.SUBSTRING)).isEmpty();
+    }
+
+    @Test
+    void substringFindsTermsAddedAfterCompaction() {
+        for (long id = 1; id <= 3000; id++) {
+            index.put(document(id, "Lecture " + id, "Old topic"));
+        }
+        for (long id = 1; id <= 3000; id++) {
+            index.remove(id);
+        }
+        assertThat(search("1500", TextSearchMode.SUBSTRING)).isEmpty();
+
+        index.put(document(5000, "Lecture 1500", "New topic"));
+
+        assertThat(search("old", TextSearchMode.SUBSTRING)).isEmpty();
+        assertThat(search("1500", TextSearchMode.SUBSTRING)).containsExactly(5000L);
+        assertThat(search("new top", TextSearchMode.SUBSTRING)).containsExactly(5000L);
+    }
+
+    private List<Long> search(String text, TextSearchMode mode) {
+        return index.search(EventSearchIndex.Query.builder()
+                .text(text)
+                .textMode(mode)
+                .sort("EVENT_DATE")
+                .size(100)
+                .build());
+    }
+
+    private static EventSearchIndex.Document document(long id, String annotation, String description) {
+        return EventSearchIndex.Document.builder()
+                .eventId(id)
+                .eventDate(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .annotation(annotation)
+                .description(description)
+                .build();
+    }
+}
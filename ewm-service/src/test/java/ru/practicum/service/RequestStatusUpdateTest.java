@@ -0,0 +1,154 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
+import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.model.Category;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventState;
+import ru.practicum.model.ParticipationRequest;
+import ru.practicum.model.RequestStatus;
+import ru.practicum.model.User;
+import ru.practicum.repository.CategoryRepository;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.ParticipationRequestRepository;
+import ru.practicum.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Решения инициатора по заявкам: порядок подтверждения при нехватке мест, событие без лимита
+ * и ошибки, которые должны дойти до клиента как 404 и 400, а не как 500.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stats.client.mode=embedded",
+        "ewm.views.sync.interval-ms=3600000",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.orm.jpa=WARN",
+        "logging.level.org.springframework.transaction=WARN",
+        "logging.level.ru.practicum=WARN"
+})
+@ActiveProfiles("test")
+class RequestStatusUpdateTest {
+
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+
+    @Test
+    void confirmsInRequestOrderWhenSlotsRunOut() {
+        Event event = createEvent(2);
+        List<Long> requests = createPendingRequests(event, 3);
+        List<Long> ordered = List.of(requests.get(2), requests.get(0), requests.get(1));
+
+        EventRequestStatusUpdateResult result = requestService.updateRequestStatuses(
+                event.getInitiator().getId(), event.getId(), update(ordered, "CONFIRMED"));
+
+        assertThat(ids(result.getConfirmedRequests())).containsExactly(requests.get(2), requests.get(0));
+        assertThat(ids(result.getRejectedRequests())).containsExactly(requests.get(1));
+        assertThat(eventRepository.findConfirmedRequests(event.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void bulkConfirmWithoutLimitRejects() {
+        Event event = createEvent(0);
+        List<Long> requests = createPendingRequests(event, 2);
+
+        EventRequestStatusUpdateResult result = requestService.updateRequestStatuses(
+                event.getInitiator().getId(), event.getId(), update(requests, "CONFIRMED"));
+
+        assertThat(result.getConfirmedRequests()).isEmpty();
+        assertThat(ids(result.getRejectedRequests())).containsExactlyElementsOf(requests);
+        assertThat(eventRepository.findConfirmedRequests(event.getId())).isZero();
+    }
+
+    @Test
+    void confirmRequestKeepsDomainErrors() {
+        Event event = createEvent(1);
+        Long requestId = createPendingRequests(event, 1).get(0);
+        Long otherUser = createUser().getId();
+
+        assertThatThrownBy(() -> requestService.confirmRequest(event.getInitiator().getId(), event.getId(), -1L))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> requestService.confirmRequest(event.getInitiator().getId(), -1L, requestId))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> requestService.confirmRequest(otherUser, event.getId(), requestId))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static EventRequestStatusUpdateRequest update(List<Long> requestIds, String status) {
+        return EventRequestStatusUpdateRequest.builder()
+                .requestIds(requestIds)
+                .status(status)
+                .build();
+    }
+
+    private static List<Long> ids(List<ParticipationRequestDto> requests) {
+        return requests.stream().map(ParticipationRequestDto::getId).toList();
+    }
+
+    private List<Long> createPendingRequests(Event event, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(requestRepository.save(ParticipationRequest.builder()
+                    .created(LocalDateTime.now())
+                    .event(event)
+                    .requester(createUser())
+                    .status(RequestStatus.PENDING)
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private Event createEvent(int participantLimit) {
+        Category category = categoryRepository.save(Category.builder()
+                .name("category-" + System.nanoTime())
+                .createdAt(LocalDateTime.now())
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.save(Event.builder()
+                .title("Workshop")
+                .annotation("Workshop with moderated requests")
+                .description("Workshop with moderated requests and a participant limit")
+                .category(category)
+                .initiator(createUser())
+                .eventDate(now.plusDays(10))
+                .createdOn(now)
+                .publishedOn(now)
+                .paid(false)
+                .participantLimit(participantLimit)
+                .requestModeration(true)
+                .confirmedRequests(0)
+                .state(EventState.PUBLISHED)
+                .views(0L)
+                .build());
+    }
+
+    private User createUser() {
+        String name = "user-" + System.nanoTime();
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Кольцо консистентного хеширования: каждый шард представлен набором виртуальных узлов,
+ * ключ принадлежит первому узлу по часовой стрелке от своего хеша.
+ */
+public class ConsistentHashRing {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final List<String> shards;
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(List<String> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : this.shards) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(String key) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+        SortedMap<Long, String> tail = ring.tailMap(hash(key));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public Map<String, List<String>> partition(List<String> keys) {
+        Map<String, List<String>> result = new TreeMap<>();
+        for (String key : keys) {
+            result.computeIfAbsent(shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        return result;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xFF);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Параметры дублирования (hedging) запросов к репликам stats-server.
+ */
+@Value
+@Builder
+public class HedgingPolicy {
+
+    /**
+     * Перцентиль задержки первой реплики, после которого отправляется дублирующий запрос.
+     */
+    @Builder.Default
+    double percentile = 0.95;
+
+    /**
+     * Доля запросов (в процентах), которую разрешено дублировать.
+     */
+    @Builder.Default
+    double budgetPercent = 5;
+
+    /**
+     * Нижняя граница задержки перед дублированием, мс.
+     */
+    @Builder.Default
+    long minDelayMillis = 10;
+
+    /**
+     * Задержка перед дублированием, пока по реплике не накоплено достаточно замеров, мс.
+     */
+    @Builder.Default
+    long defaultDelayMillis = 50;
+
+    public static HedgingPolicy defaults() {
+        return HedgingPolicy.builder().build();
+    }
+}
@@ -0,0 +1,278 @@
+package ru.practicum;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.statsdto.EndpointHit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Локальная очередь хитов, которые не удалось доставить в stats-server.
+ * Хранится в файле фиксированного размера, отображённом в память, и работает как кольцевой буфер:
+ * при переполнении вытесняются самые старые хиты. Положение головы и хвоста записано в заголовке файла,
+ * поэтому очередь переживает перезапуск приложения.
+ */
+@Slf4j
+public class HitSpool {
+
+    private static final int MAGIC = 0x48535031;
+    private static final int HEADER_SIZE = 64;
+    private static final int WRAP_MARKER = -1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int HEAD_OFFSET = 8;
+    private static final int TAIL_OFFSET = 16;
+    private static final int USED_OFFSET = 24;
+    private static final int COUNT_OFFSET = 32;
+    private static final int HEAD_SEQUENCE_OFFSET = 40;
+    private static final int DROPPED_OFFSET = 48;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private int head;
+    private int tail;
+    private long used;
+    private long count;
+    private long headSequence;
+    private long dropped;
+
+    public HitSpool(Path file, int capacityBytes) throws IOException {
+        if (capacityBytes <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Spool capacity is too small: " + capacityBytes);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Размер уже существующего файла важнее настройки, иначе сохранённые хиты окажутся нечитаемыми
+        long existing = channel.size();
+        boolean restore = existing > HEADER_SIZE && existing <= Integer.MAX_VALUE;
+        this.capacity = restore ? (int) existing : capacityBytes;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        if (restore && buffer.getInt(MAGIC_OFFSET) == MAGIC) {
+            head = (int) buffer.getLong(HEAD_OFFSET);
+            tail = (int) buffer.getLong(TAIL_OFFSET);
+            used = buffer.getLong(USED_OFFSET);
+            count = buffer.getLong(COUNT_OFFSET);
+            headSequence = buffer.getLong(HEAD_SEQUENCE_OFFSET);
+            dropped = buffer.getLong(DROPPED_OFFSET);
+            log.info("Stats spool {} restored with {} pending hits", file, count);
+        } else {
+            reset();
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            writeHeader();
+            log.info("Stats spool {} created with capacity {} bytes", file, capacity);
+        }
+    }
+
+    /**
+     * Добавляет хит в конец очереди, при нехватке места вытесняя самые старые.
+     */
+    public synchronized void append(EndpointHit hit) {
+        byte[] payload = encode(hit, System.currentTimeMillis());
+        int need = Integer.BYTES + payload.length;
+        if (need > capacity - HEADER_SIZE) {
+            log.warn("Hit is too large for stats spool: {} bytes", payload.length);
+            dropped++;
+            writeHeader();
+            return;
+        }
+
+        while (true) {
+            if (count == 0) {
+                reset();
+            }
+            boolean wrap = tail + need > capacity;
+            int gap = wrap ? capacity - tail : 0;
+            if (used + gap + need <= capacity - HEADER_SIZE) {
+                if (wrap) {
+                    if (gap >= Integer.BYTES) {
+                        buffer.putInt(tail, WRAP_MARKER);
+                    }
+                    tail = HEADER_SIZE;
+                    used += gap;
+                }
+                break;
+            }
+            dropHead();
+            dropped++;
+        }
+
+        buffer.putInt(tail, payload.length);
+        buffer.put(tail + Integer.BYTES, payload);
+        tail += need;
+        used += need;
+        count++;
+        writeHeader();
+    }
+
+    /**
+     * До max самых старых хитов без удаления из очереди.
+     */
+    public synchronized List<Entry> peek(int max) {
+        List<Entry> result = new ArrayList<>((int) Math.min(max, count));
+        int position = head;
+        long sequence = headSequence;
+        for (long i = 0; i < count && result.size() < max; i++) {
+            position = skipWrap(position);
+            int length = buffer.getInt(position);
+            byte[] payload = new byte[length];
+            buffer.get(position + Integer.BYTES, payload);
+            result.add(decode(sequence++, payload));
+            position += Integer.BYTES + length;
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет из очереди все хиты с порядковым номером не больше sequence.
+     * Хиты, вытесненные за время отправки, уже удалены и повторно не учитываются.
+     */
+    public synchronized void commit(long sequence) {
+        while (count > 0 && headSequence <= sequence) {
+            dropHead();
+        }
+        writeHeader();
+    }
+
+    public synchronized long depth() {
+        return count;
+    }
+
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Сколько миллисекунд ждёт отправки самый старый хит, 0 для пустой очереди.
+     */
+    public synchronized long lagMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        int position = skipWrap(head);
+        long spooledAt = buffer.getLong(position + Integer.BYTES);
+        return Math.max(0, System.currentTimeMillis() - spooledAt);
+    }
+
+    public synchronized void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void dropHead() {
+        int position = skipWrap(head);
+        if (position != head) {
+            used -= capacity - head;
+        }
+        int length = buffer.getInt(position);
+        head = position + Integer.BYTES + length;
+        used -= Integer.BYTES + length;
+        count--;
+        headSequence++;
+        if (count == 0) {
+            reset();
+        }
+    }
+
+    // Возвращает позицию записи, перепрыгивая неиспользованный остаток в конце файла
+    private int skipWrap(int position) {
+        if (capacity - position < Integer.BYTES || buffer.getInt(position) == WRAP_MARKER) {
+            return HEADER_SIZE;
+        }
+        return position;
+    }
+
+    private void reset() {
+        head = HEADER_SIZE;
+        tail = HEADER_SIZE;
+        used = 0;
+    }
+
+    private void writeHeader() {
+        buffer.putLong(HEAD_OFFSET, head);
+        buffer.putLong(TAIL_OFFSET, tail);
+        buffer.putLong(USED_OFFSET, used);
+        buffer.putLong(COUNT_OFFSET, count);
+        buffer.putLong(HEAD_SEQUENCE_OFFSET, headSequence);
+        buffer.putLong(DROPPED_OFFSET, dropped);
+    }
+
+    // Первым полем идёт время постановки в очередь: по нему считается задержка без разбора всей записи
+    private static byte[] encode(EndpointHit hit, long spooledAt) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(spooledAt);
+            writeNullable(out, hit.getHitKey());
+            writeNullable(out, hit.getApp());
+            writeNullable(out, hit.getUri());
+            writeNullable(out, hit.getIp());
+            out.writeLong(hit.getTimestamp() != null
+                    ? hit.getTimestamp().toEpochSecond(ZoneOffset.UTC)
+                    : Long.MIN_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(long sequence, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long spooledAt = in.readLong();
+            EndpointHit hit = EndpointHit.builder()
+                    .hitKey(readNullable(in))
+                    .app(readNullable(in))
+                    .uri(readNullable(in))
+                    .ip(readNullable(in))
+                    .build();
+            long timestamp = in.readLong();
+            if (timestamp != Long.MIN_VALUE) {
+                hit.setTimestamp(LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC));
+            }
+            return new Entry(sequence, spooledAt, hit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Value
+    public static class Entry {
+        long sequence;
+        long spooledAt;
+        EndpointHit hit;
+    }
+}
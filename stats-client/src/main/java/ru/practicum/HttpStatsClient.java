@@ -0,0 +1,535 @@
+package ru.practicum;
+
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventUris;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeStatsRequest;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsCombined;
+import ru.practicum.statsdto.ViewStatsBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * HTTP-клиент сервиса статистики.
+ * serverUrl может содержать несколько адресов через запятую - тогда каждый адрес считается
+ * отдельным шардом, а uri распределяются между шардами консистентным хешированием.
+ * Внутри шарда можно указать несколько равнозначных реплик через '|':
+ * чтение к ним выполняется с дублированием медленных запросов (см. {@link ReplicaSet}).
+ * Если задан {@link HitSpool}, недоставленные хиты сохраняются в нём и отправляются повторно
+ * пакетами в фоне; ключ hitKey не даёт серверу посчитать повторно отправленный хит дважды.
+ */
+@Slf4j
+public class HttpStatsClient implements StatsClient {
+
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int REPLAY_BATCH_SIZE = 500;
+    // Id передаются в строке запроса: 500 id укладываются в несколько килобайт, ниже лимита заголовков сервера
+    private static final int EVENT_IDS_PER_REQUEST = 500;
+    private static final long REPLAY_INTERVAL_SECONDS = 5;
+
+    private final RestTemplate restTemplate;
+    private final ConsistentHashRing ring;
+    private final Map<String, ReplicaSet> shards = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HitSpool spool;
+    private final ScheduledExecutorService replayScheduler;
+    private volatile boolean deliveryFailing;
+
+    public HttpStatsClient(RestTemplate restTemplate, String serverUrl) {
+        this(restTemplate, serverUrl, HedgingPolicy.defaults());
+    }
+
+    public HttpStatsClient(RestTemplate restTemplate, String serverUrl, HedgingPolicy hedgingPolicy) {
+        this(restTemplate, serverUrl, hedgingPolicy, null);
+    }
+
+    public HttpStatsClient(RestTemplate restTemplate, String serverUrl, HedgingPolicy hedgingPolicy, HitSpool spool) {
+        this.restTemplate = restTemplate;
+        this.spool = spool;
+        for (String shard : serverUrl.split(",")) {
+            List<String> replicas = Arrays.stream(shard.split("\\|"))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .toList();
+            if (!replicas.isEmpty()) {
+                ReplicaSet replicaSet = new ReplicaSet(replicas, hedgingPolicy, executor);
+                shards.put(replicaSet.getName(), replicaSet);
+            }
+        }
+        this.ring = new ConsistentHashRing(new ArrayList<>(shards.keySet()));
+        log.info("Stats client configured with shards: {}", ring.getShards());
+
+        if (spool != null) {
+            this.deliveryFailing = spool.depth() > 0;
+            this.replayScheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("stats-spool-replay").daemon().factory());
+            replayScheduler.scheduleWithFixedDelay(this::replaySpool,
+                    REPLAY_INTERVAL_SECONDS, REPLAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } else {
+            this.replayScheduler = null;
+        }
+    }
+
+    public Collection<ReplicaSet> getShards() {
+        return Collections.unmodifiableCollection(shards.values());
+    }
+
+    @Override
+    public void hit(EndpointHit endpointHit) {
+        log.info("Sending hit to stats service: app={}, uri={}, ip={}, timestamp={}",
+                endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), endpointHit.getTimestamp());
+
+        if (endpointHit.getHitKey() == null) {
+            endpointHit.setHitKey(UUID.randomUUID().toString());
+        }
+
+        // Пока сервер недоступен, не ждём ошибку на каждом хите - сразу кладём в очередь
+        if (spool != null && deliveryFailing) {
+            spool(endpointHit);
+            return;
+        }
+
+        try {
+            ResponseEntity<Object> response = shards.get(ring.shardFor(endpointHit.getUri()))
+                    .write(url -> restTemplate.postForEntity(url + "/hit", endpointHit, Object.class));
+            log.info("Hit successfully sent to stats service. Response status: {}", response.getStatusCode());
+        } catch (Exception e) {
+            log.error("Error sending hit to stats service: {}", e.getMessage(), e);
+            // Хит, отклонённый сервером как некорректный, повторять бессмысленно
+            if (spool != null && !(e instanceof HttpClientErrorException)) {
+                deliveryFailing = true;
+                spool(endpointHit);
+            }
+        }
+    }
+
+    /**
+     * Отправляет накопленные в очереди хиты пакетами, начиная с самых старых.
+     * Пакет делится по шардам; часть, отклонённая шардом как некорректная (4xx), отбрасывается,
+     * не мешая остальным. Из очереди удаляется самый длинный начальный отрезок пакета,
+     * все хиты которого доставлены или отброшены.
+     */
+    public void replaySpool() {
+        if (spool == null) {
+            return;
+        }
+        List<HitSpool.Entry> batch = List.of();
+        Set<String> handledShards = new HashSet<>();
+        try {
+            batch = spool.peek(REPLAY_BATCH_SIZE);
+            while (!batch.isEmpty()) {
+                handledShards.clear();
+                Map<String, List<EndpointHit>> byShard = new LinkedHashMap<>();
+                for (HitSpool.Entry entry : batch) {
+                    byShard.computeIfAbsent(ring.shardFor(entry.getHit().getUri()), shard -> new ArrayList<>())
+                            .add(entry.getHit());
+                }
+                for (Map.Entry<String, List<EndpointHit>> part : byShard.entrySet()) {
+                    try {
+                        shards.get(part.getKey()).write(
+                                url -> restTemplate.postForEntity(url + "/hits", part.getValue(), Object.class));
+                    } catch (HttpClientErrorException e) {
+                        log.error("Stats shard {} rejected {} spooled hits, dropping them: {}",
+                                part.getKey(), part.getValue().size(), e.getMessage());
+                    }
+                    handledShards.add(part.getKey());
+                }
+                spool.commit(batch.get(batch.size() - 1).getSequence());
+                log.info("Replayed {} spooled hits, {} left", batch.size(), spool.depth());
+                batch = spool.peek(REPLAY_BATCH_SIZE);
+            }
+            deliveryFailing = false;
+        } catch (Exception e) {
+            // Доставленные части за пределами удалённого отрезка будут отправлены снова,
+            // дубликаты отсеет сервер по hitKey
+            commitHandledPrefix(batch, handledShards);
+            deliveryFailing = true;
+            log.warn("Stats service is still unavailable, {} hits remain spooled: {}",
+                    spool.depth(), e.getMessage());
+        }
+    }
+
+    private void commitHandledPrefix(List<HitSpool.Entry> batch, Set<String> handledShards) {
+        long lastHandled = -1;
+        for (HitSpool.Entry entry : batch) {
+            if (!handledShards.contains(ring.shardFor(entry.getHit().getUri()))) {
+                break;
+            }
+            lastHandled = entry.getSequence();
+        }
+        if (lastHandled >= 0) {
+            spool.commit(lastHandled);
+        }
+    }
+
+    public void close() {
+        if (replayScheduler != null) {
+            replayScheduler.shutdownNow();
+        }
+        if (spool != null) {
+            spool.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void spool(EndpointHit endpointHit) {
+        if (endpointHit.getTimestamp() == null) {
+            endpointHit.setTimestamp(LocalDateTime.now());
+        }
+        spool.append(endpointHit);
+        log.debug("Hit spooled for later delivery: key={}, depth={}", endpointHit.getHitKey(), spool.depth());
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end,
+                                    List<String> uris, Boolean unique) {
+        log.info("Requesting stats from stats service: start={}, end={}, uris={}, unique={}",
+                start, end, uris, unique);
+
+        List<ViewStats> result = new ArrayList<>();
+        scatter(uris, (url, shardUris) -> getStats(url, start, end, shardUris, unique))
+                .forEach(result::addAll);
+        result.sort(Comparator.comparing(ViewStats::getHits).reversed());
+
+        log.info("Stats request successful. Found {} records", result.size());
+        return result;
+    }
+
+    @Override
+    public List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        log.info("Requesting combined stats from stats service: start={}, end={}, uris={}", start, end, uris);
+
+        List<ViewStatsCombined> result = new ArrayList<>();
+        scatter(uris, (url, shardUris) -> getCombinedStats(url, start, end, shardUris))
+                .forEach(result::addAll);
+        result.sort(Comparator.comparing(ViewStatsCombined::getHits).reversed());
+
+        log.info("Combined stats request successful. Found {} records", result.size());
+        return result;
+    }
+
+    @Override
+    public List<RangeViewStats> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique) {
+        log.info("Requesting stats for ranges from stats service: ranges={}, uris={}, unique={}",
+                ranges, uris, unique);
+
+        List<TimeRange> cleanRanges = ranges.stream()
+                .map(range -> new TimeRange(range.getStart().withNano(0), range.getEnd().withNano(0)))
+                .toList();
+
+        List<List<RangeViewStats>> parts = scatter(uris,
+                (url, shardUris) -> getStatsForRanges(url, cleanRanges, shardUris, unique));
+
+        // Объединяем ответы шардов поинтервально, сохраняя порядок интервалов из запроса
+        List<RangeViewStats> result = new ArrayList<>();
+        for (TimeRange range : cleanRanges) {
+            result.add(new RangeViewStats(range.getStart(), range.getEnd(), new ArrayList<>()));
+        }
+        for (List<RangeViewStats> part : parts) {
+            for (int i = 0; i < part.size() && i < result.size(); i++) {
+                result.get(i).getStats().addAll(part.get(i).getStats());
+            }
+        }
+        for (RangeViewStats range : result) {
+            range.getStats().sort(Comparator.comparing(ViewStats::getHits).reversed());
+        }
+
+        log.info("Range stats request successful. Found {} ranges", result.size());
+        return result;
+    }
+
+    @Override
+    public List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket) {
+        log.info("Requesting time series from stats service: start={}, end={}, uris={}, bucket={}",
+                start, end, uris, bucket);
+
+        List<ViewStatsBucket> result = new ArrayList<>();
+        scatter(uris, (url, shardUris) -> getTimeSeries(url, start, end, shardUris, bucket))
+                .forEach(result::addAll);
+        result.sort(Comparator.comparing(ViewStatsBucket::getApp)
+                .thenComparing(ViewStatsBucket::getUri)
+                .thenComparing(ViewStatsBucket::getBucket));
+
+        log.info("Time series request successful. Found {} buckets", result.size());
+        return result;
+    }
+
+    @Override
+    public EventViewStats getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique) {
+        log.info("Requesting event views from stats service: ids={}, start={}, end={}, unique={}",
+                eventIds.length, start, end, unique);
+
+        if (eventIds.length == 0) {
+            return EventViewStats.empty();
+        }
+
+        List<List<EventViewStats>> parts = scatterParts(partition(eventIds),
+                (url, shardIds) -> getEventViewsInChunks(url, shardIds, start, end, unique));
+
+        EventViewStats result = parts.size() == 1 && parts.get(0).size() == 1
+                ? parts.get(0).get(0)
+                : merge(parts);
+
+        log.info("Event views request successful. Found {} events", result.size());
+        return result;
+    }
+
+    @Override
+    public EventViewStats getAllEventViews(LocalDateTime start, LocalDateTime end, Boolean unique) {
+        log.info("Requesting views of all events from stats service: start={}, end={}, unique={}",
+                start, end, unique);
+
+        EventViewStats result = merge(scatter(null,
+                (url, shardUris) -> List.of(getEventViews(url, null, start, end, unique))));
+
+        log.info("Event views request successful. Found {} events", result.size());
+        return result;
+    }
+
+    /**
+     * Разбивает список uri по шардам и параллельно выполняет запрос к каждому из них.
+     * Без списка uri запрос уходит на все шарды. Шард, который не ответил, даёт пустой результат.
+     */
+    private <T> List<List<T>> scatter(List<String> uris, ShardCall<List<String>, T> call) {
+        Map<String, List<String>> parts;
+        if (uris == null || uris.isEmpty()) {
+            parts = new LinkedHashMap<>();
+            for (String shard : ring.getShards()) {
+                parts.put(shard, uris);
+            }
+        } else {
+            parts = ring.partition(uris);
+        }
+        return scatterParts(parts, call);
+    }
+
+    /**
+     * Параллельно выполняет запрос к каждому шарду со своей частью аргументов.
+     */
+    private <P, T> List<List<T>> scatterParts(Map<String, P> parts, ShardCall<P, T> call) {
+        if (parts.size() == 1) {
+            Map.Entry<String, P> only = parts.entrySet().iterator().next();
+            return List.of(readShard(only.getKey(), only.getValue(), call));
+        }
+
+        List<CompletableFuture<List<T>>> futures = parts.entrySet().stream()
+                .map(part -> CompletableFuture.supplyAsync(
+                        () -> readShard(part.getKey(), part.getValue(), call), executor))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Раскладывает id событий по шардам. Хиты события лежат на шарде его uri, поэтому ключ кольца - uri события;
+     * id передаются серверу числами. С одним шардом массив уходит целиком, без построения ключей.
+     */
+    private Map<String, long[]> partition(long[] eventIds) {
+        if (ring.size() == 1) {
+            return Map.of(ring.getShards().get(0), eventIds);
+        }
+        Map<String, LongStream.Builder> builders = new LinkedHashMap<>();
+        for (long eventId : eventIds) {
+            builders.computeIfAbsent(ring.shardFor(EventUris.eventUri(eventId)), shard -> LongStream.builder())
+                    .add(eventId);
+        }
+        Map<String, long[]> parts = new LinkedHashMap<>();
+        builders.forEach((shard, ids) -> parts.put(shard, ids.build().toArray()));
+        return parts;
+    }
+
+    private <P, T> List<T> readShard(String shard, P part, ShardCall<P, T> call) {
+        try {
+            return shards.get(shard).read(url -> call.execute(url, part));
+        } catch (Exception e) {
+            log.error("Error getting stats from shard {}: {} : \"{}\"",
+                    shard, e.getMessage(), e.toString(), e);
+            return Collections.emptyList();
+        }
+    }
+
+    private List<ViewStats> getStats(String serverUrl, LocalDateTime start, LocalDateTime end,
+                                     List<String> uris, Boolean unique) {
+        LocalDateTime cleanStart = start.withNano(0);
+        LocalDateTime cleanEnd = end.withNano(0);
+
+
+        String startStr = cleanStart.format(FORMATTER);
+        String endStr = cleanEnd.format(FORMATTER);
+
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats")
+                .queryParam("start", startStr)
+                .queryParam("end", endStr);
+
+        if (unique != null) {
+            builder.queryParam("unique", unique);
+        }
+
+        addUris(builder, uris);
+
+
+        String url = builder.build().toUriString();
+        log.info("Final stats URL: {}", url);
+
+        ResponseEntity<ViewStats[]> response = restTemplate.getForEntity(url, ViewStats[].class);
+
+        return toList(response.getBody());
+    }
+
+    private List<ViewStatsCombined> getCombinedStats(String serverUrl, LocalDateTime start, LocalDateTime end,
+                                                     List<String> uris) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats/combined")
+                .queryParam("start", start.withNano(0).format(FORMATTER))
+                .queryParam("end", end.withNano(0).format(FORMATTER));
+
+        addUris(builder, uris);
+
+        ResponseEntity<ViewStatsCombined[]> response = restTemplate.getForEntity(
+                builder.build().toUriString(), ViewStatsCombined[].class);
+
+        return toList(response.getBody());
+    }
+
+    private List<RangeViewStats> getStatsForRanges(String serverUrl, List<TimeRange> ranges,
+                                                   List<String> uris, Boolean unique) {
+        RangeStatsRequest request = RangeStatsRequest.builder()
+                .ranges(ranges)
+                .uris(uris)
+                .unique(unique)
+                .build();
+
+        ResponseEntity<RangeViewStats[]> response = restTemplate.postForEntity(
+                serverUrl + "/stats/ranges", request, RangeViewStats[].class);
+
+        return toList(response.getBody());
+    }
+
+    private List<ViewStatsBucket> getTimeSeries(String serverUrl, LocalDateTime start, LocalDateTime end,
+                                                List<String> uris, TimeBucket bucket) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats/timeseries")
+                .queryParam("start", start.withNano(0).format(FORMATTER))
+                .queryParam("end", end.withNano(0).format(FORMATTER))
+                .queryParam("bucket", bucket);
+
+        addUris(builder, uris);
+
+        ResponseEntity<ViewStatsBucket[]> response = restTemplate.getForEntity(
+                builder.build().toUriString(), ViewStatsBucket[].class);
+
+        return toList(response.getBody());
+    }
+
+    /**
+     * Запрашивает просмотры у шарда частями по EVENT_IDS_PER_REQUEST id, чтобы длина строки запроса
+     * не зависела от числа событий.
+     */
+    private List<EventViewStats> getEventViewsInChunks(String serverUrl, long[] eventIds, LocalDateTime start,
+                                                       LocalDateTime end, Boolean unique) {
+        if (eventIds.length <= EVENT_IDS_PER_REQUEST) {
+            return List.of(getEventViews(serverUrl, eventIds, start, end, unique));
+        }
+        List<EventViewStats> chunks = new ArrayList<>();
+        for (int from = 0; from < eventIds.length; from += EVENT_IDS_PER_REQUEST) {
+            long[] chunk = Arrays.copyOfRange(eventIds, from, Math.min(eventIds.length, from + EVENT_IDS_PER_REQUEST));
+            chunks.add(getEventViews(serverUrl, chunk, start, end, unique));
+        }
+        return chunks;
+    }
+
+    private EventViewStats getEventViews(String serverUrl, long[] eventIds, LocalDateTime start,
+                                         LocalDateTime end, Boolean unique) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats/events")
+                .queryParam("start", start.withNano(0).format(FORMATTER))
+                .queryParam("end", end.withNano(0).format(FORMATTER));
+
+        if (eventIds != null) {
+            builder.queryParam("ids", Arrays.stream(eventIds)
+                    .mapToObj(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+
+        if (unique != null) {
+            builder.queryParam("unique", unique);
+        }
+
+        EventViewStats body = restTemplate.getForObject(builder.build().toUriString(), EventViewStats.class);
+        return body != null ? body : EventViewStats.empty();
+    }
+
+    private static EventViewStats merge(List<List<EventViewStats>> parts) {
+        // Шарды отвечают по непересекающимся наборам id, остаётся только упорядочить пары
+        int total = 0;
+        for (List<EventViewStats> part : parts) {
+            for (EventViewStats stats : part) {
+                total += stats.size();
+            }
+        }
+        long[][] pairs = new long[total][];
+        int i = 0;
+        for (List<EventViewStats> part : parts) {
+            for (EventViewStats stats : part) {
+                for (int j = 0; j < stats.size(); j++) {
+                    pairs[i++] = new long[]{stats.getEventIds()[j], stats.getHits()[j]};
+                }
+            }
+        }
+        Arrays.sort(pairs, Comparator.comparingLong(pair -> pair[0]));
+
+        long[] ids = new long[total];
+        long[] hits = new long[total];
+        for (int k = 0; k < total; k++) {
+            ids[k] = pairs[k][0];
+            hits[k] = pairs[k][1];
+        }
+        return new EventViewStats(ids, hits);
+    }
+
+    private static void addUris(UriComponentsBuilder builder, List<String> uris) {
+        if (uris != null && !uris.isEmpty()) {
+            for (String uri : uris) {
+                builder.queryParam("uris", uri);
+            }
+        }
+    }
+
+    private static <T> List<T> toList(T[] body) {
+        return body != null ? new ArrayList<>(Arrays.asList(body)) : Collections.emptyList();
+    }
+
+    @FunctionalInterface
+    private interface ShardCall<P, T> {
+        List<T> execute(String serverUrl, P part);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum;
+
+import java.util.Arrays;
+
+/**
+ * Скользящее окно последних замеров задержки одной реплики.
+ */
+public class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private int next;
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) {
+            count++;
+        }
+    }
+
+    /**
+     * Значение перцентиля q (0..1) или -1, если замеров пока недостаточно.
+     */
+    public synchronized long percentile(double q) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] copy = Arrays.copyOf(samples, count);
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(q * count) - 1;
+        return copy[Math.max(0, Math.min(index, count - 1))];
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+}
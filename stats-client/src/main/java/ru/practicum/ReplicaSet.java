@@ -0,0 +1,212 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Группа равнозначных реплик stats-server, обслуживающих один шард.
+ * Чтение выполняется с дублированием (hedging): если самая быстрая реплика не ответила
+ * за перцентиль своей задержки, тот же запрос уходит на следующую, берётся первый ответ.
+ */
+@Slf4j
+public class ReplicaSet {
+
+    private static final double MAX_BUDGET_TOKENS = 10;
+
+    private final String name;
+    private final List<Replica> replicas;
+    private final HedgingPolicy policy;
+    private final ExecutorService executor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private double budgetTokens;
+
+    public ReplicaSet(List<String> urls, HedgingPolicy policy, ExecutorService executor) {
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.name = String.join("|", urls);
+        this.replicas = urls.stream().map(Replica::new).toList();
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getUrls() {
+        return replicas.stream().map(Replica::getUrl).toList();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getHedgedRequests() {
+        return hedgedRequests.get();
+    }
+
+    public long getLatencyPercentile(String url, double q) {
+        return replicas.stream()
+                .filter(replica -> replica.getUrl().equals(url))
+                .findFirst()
+                .map(replica -> replica.getLatency().percentile(q))
+                .orElse(-1L);
+    }
+
+    /**
+     * Запись выполняется без дублирования, чтобы не посчитать хит дважды.
+     * На следующую реплику переходим только если до текущей не удалось достучаться.
+     */
+    public <T> T write(Function<String, T> call) {
+        ResourceAccessException last = null;
+        for (Replica replica : preferred()) {
+            try {
+                return timed(replica, call);
+            } catch (ResourceAccessException e) {
+                log.warn("Stats replica {} is unreachable: {}", replica.getUrl(), e.getMessage());
+                last = e;
+            }
+        }
+        throw last;
+    }
+
+    public <T> T read(Function<String, T> call) {
+        onRequest();
+
+        List<Replica> order = preferred();
+        Replica first = order.get(0);
+        if (order.size() == 1) {
+            return timed(first, call);
+        }
+        Replica second = order.get(1);
+
+        Attempts<T> attempts = new Attempts<>();
+        List<Future<?>> running = new ArrayList<>(2);
+        running.add(attempts.submit(first, call));
+        try {
+            try {
+                return attempts.result.get(hedgeDelay(first), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (attempts.result.isCompletedExceptionally()) {
+                    return timed(second, call);
+                }
+                if (!tryAcquireBudget()) {
+                    return attempts.result.get();
+                }
+                hedgedRequests.incrementAndGet();
+                log.debug("Hedging stats request from {} to {}", first.getUrl(), second.getUrl());
+                running.add(attempts.submit(second, call));
+                return attempts.result.get();
+            } catch (ExecutionException e) {
+                // Первая реплика ответила ошибкой - сразу переходим на вторую
+                log.warn("Stats replica {} failed: {}", first.getUrl(), e.getCause().getMessage());
+                return timed(second, call);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stats replica", e);
+        } finally {
+            // Отменяем запрос, который не успел ответить первым
+            running.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Replica> preferred() {
+        if (replicas.size() == 1) {
+            return replicas;
+        }
+        // Реплики без замеров идут первыми, чтобы по ним тоже накопилась статистика
+        return replicas.stream()
+                .sorted(Comparator.comparingLong(replica -> replica.getLatency().percentile(0.5)))
+                .toList();
+    }
+
+    private long hedgeDelay(Replica replica) {
+        long threshold = replica.getLatency().percentile(policy.getPercentile());
+        if (threshold < 0) {
+            return policy.getDefaultDelayMillis();
+        }
+        return Math.max(threshold, policy.getMinDelayMillis());
+    }
+
+    private synchronized void onRequest() {
+        requests.incrementAndGet();
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + policy.getBudgetPercent() / 100.0);
+    }
+
+    private synchronized boolean tryAcquireBudget() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    private static <T> T timed(Replica replica, Function<String, T> call) {
+        long startedAt = System.nanoTime();
+        T result = call.apply(replica.getUrl());
+        replica.getLatency().record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return result;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException runtime
+                ? runtime
+                : new IllegalStateException(e.getCause());
+    }
+
+    private class Attempts<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger launched = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Future<?> submit(Replica replica, Function<String, T> call) {
+            launched.incrementAndGet();
+            return executor.submit(() -> {
+                try {
+                    result.complete(timed(replica, call));
+                } catch (RuntimeException e) {
+                    // Ошибкой считаем только ситуацию, когда упали все запущенные попытки
+                    if (failed.incrementAndGet() >= launched.get()) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private static class Replica {
+        private final String url;
+        private final LatencyTracker latency = new LatencyTracker();
+
+        Replica(String url) {
+            this.url = url;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        LatencyTracker getLatency() {
+            return latency;
+        }
+    }
+}
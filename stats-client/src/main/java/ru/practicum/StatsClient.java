@@ -1,87 +1,46 @@
 package ru.practicum;
 
 import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
 import ru.practicum.statsdto.ViewStats;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Collections;
 
-@Slf4j
-@RequiredArgsConstructor
-public class StatsClient {
+/**
+ * Клиент сервиса статистики.
+ * Реализации: {@link HttpStatsClient} ходит в stats-server по сети,
+ * встроенный клиент из stats-core вызывает логику сервиса статистики в том же процессе.
+ * Ошибки сервиса статистики не пробрасываются: запись хита теряется, чтение возвращает пустой результат.
+ */
+public interface StatsClient {
 
+    void hit(EndpointHit endpointHit);
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
 
-    private final RestTemplate restTemplate;
-    private final String serverUrl;
+    /**
+     * Общее и уникальное число просмотров за один проход по хитам вместо двух вызовов getStats.
+     */
+    List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris);
 
-    public void hit(EndpointHit endpointHit) {
-        log.info("Sending hit to stats service: app={}, uri={}, ip={}, timestamp={}",
-                endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), endpointHit.getTimestamp());
+    List<RangeViewStats> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique);
 
-        try {
-            String url = serverUrl + "/hit";
-            ResponseEntity<Object> response = restTemplate.postForEntity(url, endpointHit, Object.class);
-            log.info("Hit successfully sent to stats service. Response status: {}", response.getStatusCode());
-        } catch (Exception e) {
-            log.error("Error sending hit to stats service: {}", e.getMessage(), e);
-        }
-    }
+    List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris, TimeBucket bucket);
 
-    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end,
-                                    List<String> uris, Boolean unique) {
-        log.info("Requesting stats from stats service: start={}, end={}, uris={}, unique={}",
-                start, end, uris, unique);
+    /**
+     * Просмотры событий по их числовым id. Сервер считает хиты по колонке event_id,
+     * поэтому ответ не содержит строк uri и не требует их разбора.
+     */
+    EventViewStats getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique);
 
-        try {
-
-            LocalDateTime cleanStart = start.withNano(0);
-            LocalDateTime cleanEnd = end.withNano(0);
-
-
-            String startStr = cleanStart.format(FORMATTER);
-            String endStr = cleanEnd.format(FORMATTER);
-
-
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(serverUrl + "/stats")
-                    .queryParam("start", startStr)
-                    .queryParam("end", endStr);
-
-            if (unique != null) {
-                builder.queryParam("unique", unique);
-            }
-
-            if (uris != null && !uris.isEmpty()) {
-                for (String uri : uris) {
-                    builder.queryParam("uris", uri);
-                }
-            }
-
-
-            String url = builder.build().toUriString();
-            log.info("Final stats URL: {}", url);
-
-            ResponseEntity<ViewStats[]> response = restTemplate.getForEntity(url, ViewStats[].class);
-
-            ViewStats[] body = response.getBody();
-            List<ViewStats> result = body != null ? Arrays.asList(body) : Collections.emptyList();
-
-            log.info("Stats request successful. Found {} records", result.size());
-            return result;
-
-        } catch (Exception e) {
-            log.error("Error getting stats from service: {} : \"{}\"",
-                    e.getMessage(), e.toString(), e);
-            return Collections.emptyList();
-        }
-    }
-}
\ No newline at end of file
+    /**
+     * Просмотры всех событий, у которых были хиты в интервале.
+     */
+    EventViewStats getAllEventViews(LocalDateTime start, LocalDateTime end, Boolean unique);
+}
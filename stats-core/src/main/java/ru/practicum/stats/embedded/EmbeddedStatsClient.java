@@ -0,0 +1,127 @@
+package ru.practicum.stats.embedded;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.StatsClient;
+import ru.practicum.stats.service.StatsLimits;
+import ru.practicum.stats.service.StatsService;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Клиент статистики, работающий в одном процессе с основным сервисом.
+ * Вызывает StatsService напрямую, без HTTP. Повторяет поведение удалённого режима:
+ * время обрезается до секунд, как при передаче в формате "yyyy-MM-dd HH:mm:ss",
+ * а на некорректные параметры возвращается пустой результат вместо ответа 400.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EmbeddedStatsClient implements StatsClient {
+
+    private final StatsService statsService;
+
+    @Override
+    public void hit(EndpointHit endpointHit) {
+        log.info("Saving hit in embedded stats: app={}, uri={}, ip={}, timestamp={}",
+                endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), endpointHit.getTimestamp());
+
+        try {
+            statsService.saveHit(EndpointHit.builder()
+                    .app(endpointHit.getApp())
+                    .uri(endpointHit.getUri())
+                    .ip(endpointHit.getIp())
+                    .timestamp(endpointHit.getTimestamp() != null ? endpointHit.getTimestamp().withNano(0) : null)
+                    .hitKey(endpointHit.getHitKey())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error saving hit in embedded stats: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+        if (start.isAfter(end)) {
+            return Collections.emptyList();
+        }
+        return read(() -> statsService.getStats(start.withNano(0), end.withNano(0), uris, unique),
+                Collections.emptyList());
+    }
+
+    @Override
+    public List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        if (start.isAfter(end)) {
+            return Collections.emptyList();
+        }
+        return read(() -> statsService.getCombinedStats(start.withNano(0), end.withNano(0), uris),
+                Collections.emptyList());
+    }
+
+    @Override
+    public List<RangeViewStats> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique) {
+        if (ranges == null || ranges.isEmpty() || ranges.size() > StatsLimits.MAX_RANGES) {
+            return Collections.emptyList();
+        }
+        for (TimeRange range : ranges) {
+            if (range.getStart() == null || range.getEnd() == null || range.getStart().isAfter(range.getEnd())) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<TimeRange> cleanRanges = ranges.stream()
+                .map(range -> new TimeRange(range.getStart().withNano(0), range.getEnd().withNano(0)))
+                .toList();
+        return read(() -> statsService.getStatsForRanges(cleanRanges, uris, unique), Collections.emptyList());
+    }
+
+    @Override
+    public List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket) {
+        LocalDateTime cleanStart = start.withNano(0);
+        LocalDateTime cleanEnd = end.withNano(0);
+        if (cleanStart.isAfter(cleanEnd) || bucket.countBetween(cleanStart, cleanEnd) > StatsLimits.MAX_BUCKETS) {
+            return Collections.emptyList();
+        }
+        // Ответ сверх ограничения контроллер отклоняет, встроенный клиент так же возвращает пустой результат
+        List<ViewStatsBucket> series = read(() -> statsService.getTimeSeries(cleanStart, cleanEnd, uris, bucket,
+                StatsLimits.MAX_TIMESERIES_ROWS + 1), Collections.emptyList());
+        return series.size() > StatsLimits.MAX_TIMESERIES_ROWS ? Collections.emptyList() : series;
+    }
+
+    @Override
+    public EventViewStats getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique) {
+        if (eventIds.length == 0 || start.isAfter(end)) {
+            return EventViewStats.empty();
+        }
+        return read(() -> statsService.getEventViews(eventIds, start.withNano(0), end.withNano(0), unique),
+                EventViewStats.empty());
+    }
+
+    @Override
+    public EventViewStats getAllEventViews(LocalDateTime start, LocalDateTime end, Boolean unique) {
+        if (start.isAfter(end)) {
+            return EventViewStats.empty();
+        }
+        return read(() -> statsService.getEventViews(null, start.withNano(0), end.withNano(0), unique),
+                EventViewStats.empty());
+    }
+
+    private static <T> T read(Supplier<T> call, T fallback) {
+        try {
+            return call.get();
+        } catch (Exception e) {
+            log.error("Error getting stats from embedded stats: {}", e.getMessage(), e);
+            return fallback;
+        }
+    }
+}
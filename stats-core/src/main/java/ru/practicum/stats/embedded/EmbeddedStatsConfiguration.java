@@ -0,0 +1,58 @@
+package ru.practicum.stats.embedded;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.StatsClient;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.repository.StatsRepository;
+import ru.practicum.stats.service.StatsReadRouter;
+import ru.practicum.stats.service.StatsService;
+import ru.practicum.stats.service.StatsServiceImpl;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Подключает хранилище и логику агрегации stats-server к другому приложению.
+ * Класс намеренно не помечен @Configuration: его подключают через @Import,
+ * чтобы собственное сканирование stats-server не регистрировало репозиторий второй раз.
+ * Хиты хранятся в таблице hits основной базы приложения; индексы к ней создаются
+ * теми же скриптами db/stats, что и в stats-server.
+ */
+@EntityScan(basePackageClasses = EndpointHitEntity.class)
+@EnableJpaRepositories(basePackageClasses = StatsRepository.class)
+@Import({StatsServiceImpl.class, StatsReadRouter.class})
+public class EmbeddedStatsConfiguration {
+
+    @Bean
+    public StatsClient statsClient(StatsService statsService) {
+        return new EmbeddedStatsClient(statsService);
+    }
+
+    // Зависимость от EntityManagerFactory гарантирует, что Hibernate уже создал таблицу hits
+    @Bean
+    public DataSourceInitializer statsSchemaInitializer(DataSource dataSource,
+                                                        EntityManagerFactory entityManagerFactory)
+            throws MetaDataAccessException {
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/stats/schema.sql"));
+        ClassPathResource platformSchema = new ClassPathResource(
+                "db/stats/schema-" + DatabaseDriver.fromProductName(productName).getId() + ".sql");
+        if (platformSchema.exists()) {
+            populator.addScript(platformSchema);
+        }
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(populator);
+        return initializer;
+    }
+}
@@ -1,4 +1,4 @@
-package ru.practicum.model;
+package ru.practicum.stats.model;
 
 
 import lombok.*;
@@ -29,4 +29,11 @@ public class EndpointHitEntity {
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
+
+    // Числовой id события для хитов вида /events/{id}, иначе null
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "hit_key", unique = true, length = 64)
+    private String hitKey;
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package ru.practicum.stats.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StatsRepository extends JpaRepository<EndpointHitEntity, Long>, StatsRepositoryCustom {
+
+    boolean existsByHitKey(String hitKey);
+
+    @Query("SELECT h.hitKey FROM EndpointHitEntity h WHERE h.hitKey IN ?1")
+    List<String> findExistingHitKeys(Collection<String> hitKeys);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(h.id)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "AND h.uri IN ?3 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(h.id) DESC")
+    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "AND h.uri IN ?3 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC")
+    List<ViewStats> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(h.id)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(h.id) DESC")
+    List<ViewStats> getStatsWithoutUris(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC")
+    List<ViewStats> getUniqueStatsWithoutUris(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStatsCombined(h.app, h.uri, COUNT(h.id), COUNT(DISTINCT h.ip)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "AND h.uri IN ?3 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(h.id) DESC")
+    List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT new ru.practicum.statsdto.ViewStatsCombined(h.app, h.uri, COUNT(h.id), COUNT(DISTINCT h.ip)) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.app, h.uri " +
+            "ORDER BY COUNT(h.id) DESC")
+    List<ViewStatsCombined> getCombinedStatsWithoutUris(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT h.eventId, COUNT(h.id) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.eventId IN ?1 " +
+            "AND h.timestamp BETWEEN ?2 AND ?3 " +
+            "GROUP BY h.eventId " +
+            "ORDER BY h.eventId")
+    List<Object[]> getEventStats(List<Long> eventIds, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT h.eventId, COUNT(DISTINCT h.ip) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.eventId IN ?1 " +
+            "AND h.timestamp BETWEEN ?2 AND ?3 " +
+            "GROUP BY h.eventId " +
+            "ORDER BY h.eventId")
+    List<Object[]> getUniqueEventStats(List<Long> eventIds, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT h.eventId, COUNT(h.id) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.eventId IS NOT NULL " +
+            "AND h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.eventId " +
+            "ORDER BY h.eventId")
+    List<Object[]> getAllEventStats(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT h.eventId, COUNT(DISTINCT h.ip) " +
+            "FROM EndpointHitEntity h " +
+            "WHERE h.eventId IS NOT NULL " +
+            "AND h.timestamp BETWEEN ?1 AND ?2 " +
+            "GROUP BY h.eventId " +
+            "ORDER BY h.eventId")
+    List<Object[]> getAllUniqueEventStats(LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.stats.repository;
+
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatsRepositoryCustom {
+
+    /**
+     * Статистика сразу по нескольким интервалам за один проход по таблице hits.
+     * Элемент результата с индексом i соответствует интервалу ranges.get(i).
+     */
+    List<List<ViewStats>> getStatsForRanges(List<TimeRange> ranges, List<String> uris, boolean unique);
+
+    /**
+     * Количество просмотров (всего и уникальных) по фиксированным интервалам времени.
+     * Результат упорядочен по app, uri и началу интервала и содержит не больше limit строк.
+     */
+    List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris, TimeBucket bucket,
+                                        int limit);
+
+    /**
+     * Пакетная вставка хитов одним JDBC batch. Хиты с уже сохранённым hitKey пропускаются.
+     * Возвращает число вставленных строк.
+     */
+    int insertHits(List<EndpointHit> hits);
+}
@@ -0,0 +1,156 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventUris;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+public class StatsRepositoryCustomImpl implements StatsRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertHits(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO hits (app, uri, ip, timestamp, event_id, hit_key) " +
+                "SELECT :app, :uri, :ip, :timestamp, :eventId, :hitKey " +
+                "WHERE NOT EXISTS (SELECT 1 FROM hits WHERE hit_key = :hitKey)";
+
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[hits.size()];
+        for (int i = 0; i < hits.size(); i++) {
+            EndpointHit hit = hits.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("app", hit.getApp())
+                    .addValue("uri", hit.getUri())
+                    .addValue("ip", hit.getIp())
+                    .addValue("timestamp", Timestamp.valueOf(hit.getTimestamp()))
+                    .addValue("eventId", EventUris.extractEventId(hit.getUri()), Types.BIGINT)
+                    .addValue("hitKey", hit.getHitKey(), Types.VARCHAR);
+        }
+
+        List<String> keys = hits.stream()
+                .map(EndpointHit::getHitKey)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        int existing = keys.isEmpty() ? 0 : countExistingKeys(keys);
+
+        int inserted = 0;
+        boolean reported = true;
+        for (int count : jdbcTemplate.batchUpdate(sql, batch)) {
+            reported &= count != Statement.SUCCESS_NO_INFO;
+            inserted += Math.max(count, 0);
+        }
+        if (reported) {
+            return inserted;
+        }
+        // Драйвер не сообщил число строк (SUCCESS_NO_INFO): хиты без ключа вставляются всегда,
+        // из хитов с ключом - по одному на каждый ключ, которого не было до вставки
+        long withoutKey = hits.stream().filter(hit -> hit.getHitKey() == null).count();
+        return (int) withoutKey + keys.size() - existing;
+    }
+
+    private int countExistingKeys(List<String> keys) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hits WHERE hit_key IN (:keys)",
+                new MapSqlParameterSource("keys", keys), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public List<List<ViewStats>> getStatsForRanges(List<TimeRange> ranges, List<String> uris, boolean unique) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT h.app, h.uri");
+
+        // Условная агрегация: по одному счётчику на каждый интервал
+        for (int i = 0; i < ranges.size(); i++) {
+            TimeRange range = ranges.get(i);
+            params.addValue("s" + i, Timestamp.valueOf(range.getStart()));
+            params.addValue("e" + i, Timestamp.valueOf(range.getEnd()));
+            String condition = "h.timestamp BETWEEN :s" + i + " AND :e" + i;
+            sql.append(unique
+                    ? ", COUNT(DISTINCT CASE WHEN " + condition + " THEN h.ip END)"
+                    : ", COUNT(CASE WHEN " + condition + " THEN h.id END)");
+        }
+
+        // Внешняя граница - объединение всех интервалов, чтобы не читать лишние строки
+        LocalDateTime minStart = ranges.stream().map(TimeRange::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime maxEnd = ranges.stream().map(TimeRange::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        params.addValue("minStart", Timestamp.valueOf(minStart));
+        params.addValue("maxEnd", Timestamp.valueOf(maxEnd));
+        sql.append(" FROM hits h WHERE h.timestamp BETWEEN :minStart AND :maxEnd");
+
+        if (uris != null && !uris.isEmpty()) {
+            params.addValue("uris", uris);
+            sql.append(" AND h.uri IN (:uris)");
+        }
+        sql.append(" GROUP BY h.app, h.uri");
+
+        List<List<ViewStats>> result = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            result.add(new ArrayList<>());
+        }
+
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            String app = rs.getString(1);
+            String uri = rs.getString(2);
+            for (int i = 0; i < ranges.size(); i++) {
+                long hits = rs.getLong(i + 3);
+                if (hits > 0) {
+                    result.get(i).add(new ViewStats(app, uri, hits));
+                }
+            }
+        });
+
+        for (List<ViewStats> stats : result) {
+            stats.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        }
+        return result;
+    }
+
+    @Override
+    public List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end))
+                .addValue("limit", limit);
+
+        // Единица усечения берётся из enum, поэтому её можно безопасно подставить в текст запроса
+        String bucketExpr = "DATE_TRUNC('" + bucket.name().toLowerCase() + "', h.timestamp)";
+
+        StringBuilder sql = new StringBuilder("SELECT h.app, h.uri, ")
+                .append(bucketExpr).append(" AS bucket, COUNT(h.id), COUNT(DISTINCT h.ip) ")
+                .append("FROM hits h WHERE h.timestamp BETWEEN :start AND :end");
+        if (uris != null && !uris.isEmpty()) {
+            params.addValue("uris", uris);
+            sql.append(" AND h.uri IN (:uris)");
+        }
+        sql.append(" GROUP BY h.app, h.uri, ").append(bucketExpr)
+                .append(" ORDER BY h.app, h.uri, bucket LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> ViewStatsBucket.builder()
+                .app(rs.getString(1))
+                .uri(rs.getString(2))
+                .bucket(rs.getTimestamp(3).toLocalDateTime())
+                .hits(rs.getLong(4))
+                .uniqueHits(rs.getLong(5))
+                .build());
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.stats.service;
+
+/**
+ * Ограничения на размер запросов статистики. Общие для HTTP-контроллера stats-server
+ * и встроенного клиента, чтобы оба режима одинаково отклоняли слишком большие запросы.
+ */
+public final class StatsLimits {
+
+    public static final int MAX_RANGES = 32;
+    public static final long MAX_BUCKETS = 1000;
+    // Ограничение на весь ответ временного ряда: без uris число рядов заранее неизвестно
+    public static final int MAX_TIMESERIES_ROWS = 10_000;
+
+    private StatsLimits() {
+    }
+}
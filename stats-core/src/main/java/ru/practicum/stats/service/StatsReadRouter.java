@@ -0,0 +1,40 @@
+package ru.practicum.stats.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Выбирает базу для запросов статистики.
+ * Запрос выполняется в read-only транзакции, и при настроенной реплике соединение берётся из неё
+ * (см. ReadWriteDataSourceConfig). Если интервал запроса заканчивается позже, чем now - max-staleness,
+ * реплика может ещё не содержать нужных хитов, поэтому такой запрос уходит на основную базу.
+ */
+@Slf4j
+@Component
+public class StatsReadRouter {
+
+    private final TransactionTemplate replicaTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final Duration maxStaleness;
+
+    public StatsReadRouter(PlatformTransactionManager transactionManager,
+                           @Value("${stats.datasource.read.max-staleness:5s}") Duration maxStaleness) {
+        this.replicaTransaction = new TransactionTemplate(transactionManager);
+        this.replicaTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.maxStaleness = maxStaleness;
+    }
+
+    public <T> T read(LocalDateTime end, Supplier<T> query) {
+        boolean fresh = end.isAfter(LocalDateTime.now().minus(maxStaleness));
+        log.debug("Stats query up to {} is routed to the {} database", end, fresh ? "primary" : "read");
+        return (fresh ? primaryTransaction : replicaTransaction).execute(status -> query.get());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsCombined;
+import ru.practicum.statsdto.ViewStatsBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatsService {
+    void saveHit(EndpointHit endpointHit);
+
+    void saveHits(List<EndpointHit> endpointHits);
+
+    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
+
+    List<RangeViewStats> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique);
+
+    /**
+     * Временной ряд просмотров не длиннее limit строк на все uri вместе.
+     */
+    List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris, TimeBucket bucket,
+                                        int limit);
+
+    EventViewStats getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique);
+
+    List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+}
\ No newline at end of file
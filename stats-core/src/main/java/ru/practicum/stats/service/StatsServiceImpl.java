@@ -0,0 +1,170 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import ru.practicum.stats.model.EndpointHitEntity;
+import ru.practicum.stats.repository.StatsRepository;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventUris;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsCombined;
+import ru.practicum.statsdto.ViewStatsBucket;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final StatsRepository statsRepository;
+    private final StatsReadRouter readRouter;
+
+    @Override
+    public void saveHit(EndpointHit endpointHit) {
+        if (endpointHit.getHitKey() != null && statsRepository.existsByHitKey(endpointHit.getHitKey())) {
+            log.debug("Duplicate hit skipped: key={}", endpointHit.getHitKey());
+            return;
+        }
+        try {
+            statsRepository.save(toEntity(endpointHit));
+        } catch (DataIntegrityViolationException e) {
+            // Параллельная повторная отправка того же хита уже сохранена
+            log.debug("Duplicate hit skipped: key={}", endpointHit.getHitKey());
+        }
+    }
+
+    @Override
+    public void saveHits(List<EndpointHit> endpointHits) {
+        Set<String> keys = endpointHits.stream()
+                .map(EndpointHit::getHitKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> seen = keys.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(statsRepository.findExistingHitKeys(keys));
+
+        List<EndpointHitEntity> entities = new ArrayList<>(endpointHits.size());
+        for (EndpointHit endpointHit : endpointHits) {
+            if (endpointHit.getHitKey() == null || seen.add(endpointHit.getHitKey())) {
+                entities.add(toEntity(endpointHit));
+            }
+        }
+        log.debug("Saving {} of {} hits, the rest are duplicates", entities.size(), endpointHits.size());
+
+        try {
+            statsRepository.saveAll(entities);
+        } catch (DataIntegrityViolationException e) {
+            // Пакет пересёкся с параллельной записью - сохраняем по одному, пропуская дубликаты
+            endpointHits.forEach(this::saveHit);
+        }
+    }
+
+    private EndpointHitEntity toEntity(EndpointHit endpointHit) {
+        return EndpointHitEntity.builder()
+                .app(endpointHit.getApp())
+                .uri(endpointHit.getUri())
+                .ip(endpointHit.getIp())
+                .timestamp(endpointHit.getTimestamp() != null ?
+                        endpointHit.getTimestamp() : LocalDateTime.now())
+                .eventId(EventUris.extractEventId(endpointHit.getUri()))
+                .hitKey(endpointHit.getHitKey())
+                .build();
+    }
+
+    @Override
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end,
+                                    List<String> uris, Boolean unique) {
+        return readRouter.read(end, () -> queryStats(start, end, uris, unique));
+    }
+
+    private List<ViewStats> queryStats(LocalDateTime start, LocalDateTime end,
+                                       List<String> uris, Boolean unique) {
+        if (uris == null || uris.isEmpty()) {
+            if (Boolean.TRUE.equals(unique)) {
+                return statsRepository.getUniqueStatsWithoutUris(start, end);
+            } else {
+                return statsRepository.getStatsWithoutUris(start, end);
+            }
+        } else {
+            if (Boolean.TRUE.equals(unique)) {
+                return statsRepository.getUniqueStats(start, end, uris);
+            } else {
+                return statsRepository.getStats(start, end, uris);
+            }
+        }
+    }
+
+    @Override
+    public List<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return readRouter.read(end, () -> uris == null || uris.isEmpty()
+                ? statsRepository.getCombinedStatsWithoutUris(start, end)
+                : statsRepository.getCombinedStats(start, end, uris));
+    }
+
+    @Override
+    public List<RangeViewStats> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique) {
+        LocalDateTime maxEnd = ranges.stream().map(TimeRange::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        List<List<ViewStats>> stats = readRouter.read(maxEnd,
+                () -> statsRepository.getStatsForRanges(ranges, uris, Boolean.TRUE.equals(unique)));
+
+        List<RangeViewStats> result = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            result.add(RangeViewStats.builder()
+                    .start(ranges.get(i).getStart())
+                    .end(ranges.get(i).getEnd())
+                    .stats(stats.get(i))
+                    .build());
+        }
+        return result;
+    }
+
+    @Override
+    public List<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket, int limit) {
+        return readRouter.read(end, () -> statsRepository.getTimeSeries(start, end, uris, bucket, limit));
+    }
+
+    @Override
+    public EventViewStats getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique) {
+        if (eventIds != null && eventIds.length == 0) {
+            return EventViewStats.empty();
+        }
+
+        // Без списка id возвращаются все события, у которых были хиты в интервале
+        List<Object[]> rows;
+        if (eventIds == null) {
+            rows = readRouter.read(end, () -> Boolean.TRUE.equals(unique)
+                    ? statsRepository.getAllUniqueEventStats(start, end)
+                    : statsRepository.getAllEventStats(start, end));
+        } else {
+            List<Long> ids = Arrays.stream(eventIds).boxed().toList();
+            rows = readRouter.read(end, () -> Boolean.TRUE.equals(unique)
+                    ? statsRepository.getUniqueEventStats(ids, start, end)
+                    : statsRepository.getEventStats(ids, start, end));
+        }
+
+        // Строки уже отсортированы по event_id, поэтому массивы готовы для бинарного поиска
+        long[] resultIds = new long[rows.size()];
+        long[] hits = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            resultIds[i] = ((Number) rows.get(i)[0]).longValue();
+            hits[i] = ((Number) rows.get(i)[1]).longValue();
+        }
+        return new EventViewStats(resultIds, hits);
+    }
+}
\ No newline at end of file
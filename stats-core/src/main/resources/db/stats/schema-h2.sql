@@ -0,0 +1,16 @@
+-- H2 не поддерживает INCLUDE и BRIN: покрывающие колонки добавлены в ключ индекса
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, timestamp, app, ip);
+
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits (timestamp);
+
+CREATE INDEX IF NOT EXISTS idx_hits_event_id_timestamp ON hits (event_id, timestamp, ip);
+
+-- Хиты, записанные до появления event_id: id события восстанавливается из uri /events/{id}
+-- по тому же правилу, что EventUris.extractEventId (не больше 18 цифр)
+UPDATE hits SET event_id = CAST(SUBSTRING(uri, 9) AS BIGINT)
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'backfill-hits-event-id')
+  AND event_id IS NULL
+  AND REGEXP_LIKE(uri, '^/events/[0-9]{1,18}$');
+INSERT INTO schema_migrations (id, applied_on)
+SELECT 'backfill-hits-event-id', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'backfill-hits-event-id');
@@ -0,0 +1,21 @@
+-- Статистика по списку uri: поиск по (uri, timestamp), app и ip берутся из индекса (index-only scan),
+-- в том числе для COUNT(DISTINCT ip)
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, timestamp) INCLUDE (app, ip);
+
+-- Статистика без списка uri: таблица пополняется по времени, BRIN по timestamp занимает
+-- единицы страниц и отсекает блоки вне интервала
+CREATE INDEX IF NOT EXISTS brin_hits_timestamp ON hits USING BRIN (timestamp);
+
+-- Просмотры событий по числовому id
+CREATE INDEX IF NOT EXISTS idx_hits_event_id_timestamp ON hits (event_id, timestamp) INCLUDE (ip)
+    WHERE event_id IS NOT NULL;
+
+-- Хиты, записанные до появления event_id: id события восстанавливается из uri /events/{id}
+-- по тому же правилу, что EventUris.extractEventId (не больше 18 цифр)
+UPDATE hits SET event_id = CAST(substring(uri from 9) AS BIGINT)
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'backfill-hits-event-id')
+  AND event_id IS NULL
+  AND uri ~ '^/events/[0-9]{1,18}$';
+INSERT INTO schema_migrations (id, applied_on)
+SELECT 'backfill-hits-event-id', CURRENT_TIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'backfill-hits-event-id');
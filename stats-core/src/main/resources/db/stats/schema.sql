@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS hits (
+                                             id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                             app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    ip VARCHAR(45) NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    event_id BIGINT,
+    hit_key VARCHAR(64)
+    );
+
+-- Таблица, созданная до появления колонок, дополняется ими
+ALTER TABLE hits ADD COLUMN IF NOT EXISTS event_id BIGINT;
+ALTER TABLE hits ADD COLUMN IF NOT EXISTS hit_key VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_hits_hit_key ON hits (hit_key);
+
+-- Разовые миграции данных: отметка не даёт повторить миграцию при следующем запуске.
+-- Сами миграции зависят от диалекта и лежат в schema-h2.sql и schema-postgresql.sql
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    id VARCHAR(64) PRIMARY KEY,
+    applied_on TIMESTAMP NOT NULL
+);
+
+-- Индексы под запросы статистики зависят от возможностей СУБД и лежат в schema-h2.sql и schema-postgresql.sql
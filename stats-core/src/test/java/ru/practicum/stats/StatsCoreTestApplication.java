@@ -0,0 +1,10 @@
+package ru.practicum.stats;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Конфигурация для тестов библиотеки: собственного приложения у stats-core нет.
+ */
+@SpringBootApplication
+public class StatsCoreTestApplication {
+}
@@ -0,0 +1,65 @@
+package ru.practicum.stats.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.statsdto.EventViewStats;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Хиты, записанные до появления колонки event_id, учитываются в просмотрах событий после обновления схемы.
+ */
+@DataJpaTest
+@Import({StatsServiceImpl.class, StatsReadRouter.class})
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.schema-locations=classpath:db/legacy/hits-before-event-id.sql,"
+                + "classpath:db/stats/schema.sql,classpath:db/stats/schema-h2.sql"
+})
+class EventIdBackfillTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void legacyEventHitsAreCounted() {
+        EventViewStats views = statsService.getEventViews(new long[]{7, 8}, START, END, false);
+        assertThat(views.get(7)).isEqualTo(3);
+        assertThat(views.get(8)).isEqualTo(1);
+
+        EventViewStats unique = statsService.getEventViews(new long[]{7}, START, END, true);
+        assertThat(unique.get(7)).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hits WHERE event_id IS NULL", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void backfillRunsOnce() {
+        jdbcTemplate.update("UPDATE hits SET event_id = NULL WHERE uri = '/events/8'");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/stats/schema.sql"),
+                new ClassPathResource("db/stats/schema-h2.sql")).execute(dataSource);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hits WHERE uri = '/events/8' AND event_id IS NULL", Long.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,15 @@
+-- Таблица hits в том виде, в каком её создавали до появления event_id и hit_key, с уже записанными хитами
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    ip VARCHAR(45) NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events/7', '10.0.0.1', '2024-01-01 10:00:00');
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events/7', '10.0.0.2', '2024-01-01 11:00:00');
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events/7', '10.0.0.2', '2024-01-01 12:00:00');
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events/8', '10.0.0.1', '2024-01-01 10:00:00');
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events', '10.0.0.1', '2024-01-01 10:00:00');
+INSERT INTO hits (app, uri, ip, timestamp) VALUES ('ewm-main-service', '/events/8/comments', '10.0.0.1', '2024-01-01 10:00:00');
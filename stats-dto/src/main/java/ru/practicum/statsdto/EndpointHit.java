@@ -17,4 +17,7 @@ public class EndpointHit {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime timestamp;
+
+    // Ключ идемпотентности: повторная отправка хита с тем же ключом не учитывается
+    private String hitKey;
 }
\ No newline at end of file
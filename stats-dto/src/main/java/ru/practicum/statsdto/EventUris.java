@@ -0,0 +1,35 @@
+package ru.practicum.statsdto;
+
+/**
+ * Соглашение об uri страниц событий: /events/{id}.
+ */
+public final class EventUris {
+
+    public static final String PREFIX = "/events/";
+
+    private EventUris() {
+    }
+
+    public static String eventUri(long eventId) {
+        return PREFIX + eventId;
+    }
+
+    /**
+     * Числовой id события из uri вида /events/{id} или null, если uri другого вида.
+     */
+    public static Long extractEventId(String uri) {
+        if (uri == null || !uri.startsWith(PREFIX) || uri.length() == PREFIX.length()
+                || uri.length() - PREFIX.length() > 18) {
+            return null;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
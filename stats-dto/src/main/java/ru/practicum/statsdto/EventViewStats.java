@@ -0,0 +1,36 @@
+package ru.practicum.statsdto;
+
+import lombok.*;
+
+import java.util.Arrays;
+
+/**
+ * Просмотры событий по числовому id: два параллельных массива, отсортированных по eventIds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventViewStats {
+    private long[] eventIds;
+    private long[] hits;
+
+    public static EventViewStats empty() {
+        return new EventViewStats(new long[0], new long[0]);
+    }
+
+    /**
+     * Количество просмотров события или 0, если просмотров не было.
+     */
+    public long get(long eventId) {
+        if (eventIds == null) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(eventIds, eventId);
+        return index >= 0 ? hits[index] : 0;
+    }
+
+    public int size() {
+        return eventIds == null ? 0 : eventIds.length;
+    }
+}
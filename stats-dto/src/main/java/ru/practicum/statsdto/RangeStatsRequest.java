@@ -0,0 +1,15 @@
+package ru.practicum.statsdto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeStatsRequest {
+    private List<TimeRange> ranges;
+    private List<String> uris;
+    private Boolean unique;
+}
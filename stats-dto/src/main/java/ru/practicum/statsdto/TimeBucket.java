@@ -0,0 +1,35 @@
+package ru.practicum.statsdto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum TimeBucket {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    TimeBucket(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+
+    /**
+     * Начало интервала, в который попадает момент; совпадает с DATE_TRUNC в запросе.
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+
+    /**
+     * Число интервалов, которые пересекает диапазон [start, end] (считается по усечённым границам).
+     */
+    public long countBetween(LocalDateTime start, LocalDateTime end) {
+        return unit.between(truncate(start), truncate(end)) + 1;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.statsdto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewStatsBucket {
+    private String app;
+    private String uri;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime bucket;
+
+    private Long hits;
+    private Long uniqueHits;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.statsdto;
+
+import lombok.*;
+
+/**
+ * Общее число просмотров и число уникальных посетителей uri, посчитанные одним запросом.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewStatsCombined {
+    private String app;
+    private String uri;
+    private Long hits;
+    private Long uniqueHits;
+}
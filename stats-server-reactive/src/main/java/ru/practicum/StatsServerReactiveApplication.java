@@ -0,0 +1,26 @@
+package ru.practicum;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * stats-core подключён ради общей схемы db/stats и ограничений StatsLimits; его JPA-классы
+ * (пакет ru.practicum.stats) в реактивной сборке не используются и исключаются из сканирования.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "ru\\.practicum\\.stats\\..*")})
+public class StatsServerReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(StatsServerReactiveApplication.class, args);
+    }
+}
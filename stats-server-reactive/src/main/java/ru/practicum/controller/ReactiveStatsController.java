@@ -0,0 +1,159 @@
+package ru.practicum.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.service.HitIngestService;
+import ru.practicum.service.ReactiveStatsService;
+import ru.practicum.stats.service.StatsLimits;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeStatsRequest;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveStatsController {
+
+    private final HitIngestService hitIngestService;
+    private final ReactiveStatsService statsService;
+
+    @PostMapping("/hit")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> saveHit(@RequestBody EndpointHit endpointHit) {
+        log.debug("Saving hit: app={}, uri={}, ip={}, timestamp={}",
+                endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), endpointHit.getTimestamp());
+        return hitIngestService.submit(endpointHit);
+    }
+
+    // Пакет из очереди недоставленных хитов клиента; повторно присланные хиты отсеиваются по hitKey
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> saveHits(@RequestBody List<EndpointHit> endpointHits) {
+        log.debug("Saving batch of {} hits", endpointHits.size());
+        return Mono.when(endpointHits.stream().map(hitIngestService::submit).toList());
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<Flux<ViewStats>>> getStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "false") Boolean unique) {
+
+        log.debug("Getting stats: start={}, end={}, uris={}, unique={}", start, end, uris, unique);
+
+        if (start.isAfter(end)) {
+            log.warn("Invalid date range: start after end");
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return Mono.just(ResponseEntity.ok(statsService.getStats(start, end, uris, unique)));
+    }
+
+    @GetMapping("/stats/combined")
+    public Mono<ResponseEntity<Flux<ViewStatsCombined>>> getCombinedStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris) {
+
+        log.debug("Getting combined stats: start={}, end={}, uris={}", start, end, uris);
+
+        if (start.isAfter(end)) {
+            log.warn("Invalid date range: start after end");
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return Mono.just(ResponseEntity.ok(statsService.getCombinedStats(start, end, uris)));
+    }
+
+    @PostMapping("/stats/ranges")
+    public Mono<ResponseEntity<List<RangeViewStats>>> getStatsForRanges(@RequestBody RangeStatsRequest request) {
+        log.debug("Getting stats for ranges: ranges={}, uris={}, unique={}",
+                request.getRanges(), request.getUris(), request.getUnique());
+
+        List<TimeRange> ranges = request.getRanges();
+        if (ranges == null || ranges.isEmpty() || ranges.size() > StatsLimits.MAX_RANGES) {
+            log.warn("Invalid number of ranges: expected 1..{}", StatsLimits.MAX_RANGES);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        for (TimeRange range : ranges) {
+            if (range.getStart() == null || range.getEnd() == null || range.getStart().isAfter(range.getEnd())) {
+                log.warn("Invalid date range: {}", range);
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+        }
+
+        return statsService.getStatsForRanges(ranges, request.getUris(), request.getUnique())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/stats/timeseries")
+    public Mono<ResponseEntity<List<ViewStatsBucket>>> getTimeSeries(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(defaultValue = "HOUR") TimeBucket bucket) {
+
+        log.debug("Getting time series: start={}, end={}, uris={}, bucket={}", start, end, uris, bucket);
+
+        if (start.isAfter(end)) {
+            log.warn("Invalid date range: start after end");
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        // Те же ограничения на число интервалов и строк, что у stats-server
+        long buckets = bucket.countBetween(start, end);
+        if (buckets > StatsLimits.MAX_BUCKETS) {
+            log.warn("Too many buckets requested: {} (max {})", buckets, StatsLimits.MAX_BUCKETS);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (uris != null && !uris.isEmpty() && uris.stream().distinct().count() * buckets > StatsLimits.MAX_TIMESERIES_ROWS) {
+            log.warn("Too many rows requested: {} uris x {} buckets (max {})", uris.size(), buckets, StatsLimits.MAX_TIMESERIES_ROWS);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        // Лишняя строка показывает, что ответ не уместился в ограничение
+        return statsService.getTimeSeries(start, end, uris, bucket, StatsLimits.MAX_TIMESERIES_ROWS + 1)
+                .collectList()
+                .map(series -> {
+                    if (series.size() > StatsLimits.MAX_TIMESERIES_ROWS) {
+                        log.warn("Time series exceeds {} rows, narrow the range or pass uris", StatsLimits.MAX_TIMESERIES_ROWS);
+                        return ResponseEntity.badRequest().<List<ViewStatsBucket>>build();
+                    }
+                    return ResponseEntity.ok(series);
+                });
+    }
+
+    @GetMapping("/stats/events")
+    public Mono<ResponseEntity<EventViewStats>> getEventViews(
+            @RequestParam(required = false) long[] ids,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(defaultValue = "false") Boolean unique) {
+
+        log.debug("Getting event views: ids={}, start={}, end={}, unique={}",
+                ids != null ? ids.length : "all", start, end, unique);
+
+        if (start.isAfter(end)) {
+            log.warn("Invalid date range: start after end");
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return statsService.getEventViews(ids, start, end, unique).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,250 @@
+package ru.practicum.repository;
+
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventUris;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveStatsRepository {
+
+    // Хит с уже сохранённым hitKey (повторная отправка из очереди клиента) не вставляется
+    private static final String INSERT_HIT =
+            "INSERT INTO hits (app, uri, ip, timestamp, event_id, hit_key) " +
+                    "SELECT $1, $2, $3, $4, $5, $6 " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM hits WHERE hit_key = $6)";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Сохраняет пачку хитов одним выполнением подготовленного запроса с несколькими наборами параметров.
+     * Хиты, чей hitKey уже есть в базе или встречался раньше в пачке, пропускаются.
+     * Возвращает число вставленных строк.
+     */
+    public Mono<Long> saveAll(List<EndpointHit> hits) {
+        Set<String> keys = new HashSet<>();
+        List<EndpointHit> unique = hits.stream()
+                .filter(hit -> hit.getHitKey() == null || keys.add(hit.getHitKey()))
+                .toList();
+        if (unique.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_HIT);
+            for (int i = 0; i < unique.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                EndpointHit hit = unique.get(i);
+                statement.bind(0, hit.getApp())
+                        .bind(1, hit.getUri())
+                        .bind(2, hit.getIp())
+                        .bind(3, hit.getTimestamp());
+                Long eventId = EventUris.extractEventId(hit.getUri());
+                if (eventId != null) {
+                    statement.bind(4, eventId);
+                } else {
+                    statement.bindNull(4, Long.class);
+                }
+                if (hit.getHitKey() != null) {
+                    statement.bind(5, hit.getHitKey());
+                } else {
+                    statement.bindNull(5, String.class);
+                }
+            }
+            return Flux.from(statement.execute())
+                    .flatMap(result -> Mono.from(result.getRowsUpdated()));
+        }).reduce(0L, Long::sum);
+    }
+
+    public Flux<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        boolean withUris = uris != null && !uris.isEmpty();
+        String sql = "SELECT app, uri, " + (unique ? "COUNT(DISTINCT ip)" : "COUNT(id)") + " AS hits " +
+                "FROM hits " +
+                "WHERE timestamp BETWEEN :start AND :end " +
+                (withUris ? "AND uri IN (:uris) " : "") +
+                "GROUP BY app, uri " +
+                "ORDER BY hits DESC";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("start", start)
+                .bind("end", end);
+        if (withUris) {
+            spec = spec.bind("uris", uris);
+        }
+
+        return spec.map((row, metadata) -> new ViewStats(
+                        row.get("app", String.class),
+                        row.get("uri", String.class),
+                        row.get("hits", Long.class)))
+                .all();
+    }
+
+    public Flux<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        boolean withUris = uris != null && !uris.isEmpty();
+        String sql = "SELECT app, uri, COUNT(id) AS hits, COUNT(DISTINCT ip) AS unique_hits " +
+                "FROM hits " +
+                "WHERE timestamp BETWEEN :start AND :end " +
+                (withUris ? "AND uri IN (:uris) " : "") +
+                "GROUP BY app, uri " +
+                "ORDER BY hits DESC";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("start", start)
+                .bind("end", end);
+        if (withUris) {
+            spec = spec.bind("uris", uris);
+        }
+
+        return spec.map((row, metadata) -> new ViewStatsCombined(
+                        row.get("app", String.class),
+                        row.get("uri", String.class),
+                        row.get("hits", Long.class),
+                        row.get("unique_hits", Long.class)))
+                .all();
+    }
+
+    /**
+     * Статистика по нескольким интервалам одним проходом по таблице, как в StatsRepositoryCustomImpl
+     * из stats-core: по одному условному счётчику на интервал. Результат - по списку на каждый интервал
+     * в порядке запроса.
+     */
+    public Mono<List<List<ViewStats>>> getStatsForRanges(List<TimeRange> ranges, List<String> uris, boolean unique) {
+        StringBuilder sql = new StringBuilder("SELECT app, uri");
+        for (int i = 0; i < ranges.size(); i++) {
+            String condition = "timestamp BETWEEN :s" + i + " AND :e" + i;
+            sql.append(unique
+                    ? ", COUNT(DISTINCT CASE WHEN " + condition + " THEN ip END)"
+                    : ", COUNT(CASE WHEN " + condition + " THEN id END)");
+        }
+        sql.append(" FROM hits WHERE timestamp BETWEEN :minStart AND :maxEnd");
+        boolean withUris = uris != null && !uris.isEmpty();
+        if (withUris) {
+            sql.append(" AND uri IN (:uris)");
+        }
+        sql.append(" GROUP BY app, uri");
+
+        // Внешняя граница - объединение всех интервалов, чтобы не читать лишние строки
+        LocalDateTime minStart = ranges.stream().map(TimeRange::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime maxEnd = ranges.stream().map(TimeRange::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("minStart", minStart)
+                .bind("maxEnd", maxEnd);
+        for (int i = 0; i < ranges.size(); i++) {
+            spec = spec.bind("s" + i, ranges.get(i).getStart())
+                    .bind("e" + i, ranges.get(i).getEnd());
+        }
+        if (withUris) {
+            spec = spec.bind("uris", uris);
+        }
+
+        return spec.map((row, metadata) -> {
+                    long[] hits = new long[ranges.size()];
+                    for (int i = 0; i < ranges.size(); i++) {
+                        hits[i] = row.get(i + 2, Long.class);
+                    }
+                    return new RangeRow(row.get(0, String.class), row.get(1, String.class), hits);
+                })
+                .all()
+                .collectList()
+                .map(rows -> {
+                    List<List<ViewStats>> result = new ArrayList<>(ranges.size());
+                    for (int i = 0; i < ranges.size(); i++) {
+                        List<ViewStats> stats = new ArrayList<>();
+                        for (RangeRow row : rows) {
+                            if (row.hits()[i] > 0) {
+                                stats.add(new ViewStats(row.app(), row.uri(), row.hits()[i]));
+                            }
+                        }
+                        stats.sort(Comparator.comparing(ViewStats::getHits).reversed());
+                        result.add(stats);
+                    }
+                    return result;
+                });
+    }
+
+    public Flux<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket, int limit) {
+        // Единица усечения берётся из enum, поэтому её можно безопасно подставить в текст запроса
+        String bucketExpr = "DATE_TRUNC('" + bucket.name().toLowerCase() + "', timestamp)";
+        boolean withUris = uris != null && !uris.isEmpty();
+        String sql = "SELECT app, uri, " + bucketExpr + " AS bucket, COUNT(id) AS hits, COUNT(DISTINCT ip) AS unique_hits " +
+                "FROM hits " +
+                "WHERE timestamp BETWEEN :start AND :end " +
+                (withUris ? "AND uri IN (:uris) " : "") +
+                "GROUP BY app, uri, " + bucketExpr + " " +
+                "ORDER BY app, uri, bucket LIMIT :limit";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("start", start)
+                .bind("end", end)
+                .bind("limit", limit);
+        if (withUris) {
+            spec = spec.bind("uris", uris);
+        }
+
+        return spec.map((row, metadata) -> ViewStatsBucket.builder()
+                        .app(row.get("app", String.class))
+                        .uri(row.get("uri", String.class))
+                        .bucket(row.get("bucket", LocalDateTime.class))
+                        .hits(row.get("hits", Long.class))
+                        .uniqueHits(row.get("unique_hits", Long.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Просмотры событий по числовому id. Без списка id возвращаются все события,
+     * у которых были хиты в интервале. Строки отсортированы по event_id.
+     */
+    public Mono<EventViewStats> getEventViews(List<Long> eventIds, LocalDateTime start, LocalDateTime end,
+                                              boolean unique) {
+        String sql = "SELECT event_id, " + (unique ? "COUNT(DISTINCT ip)" : "COUNT(id)") + " AS hits " +
+                "FROM hits " +
+                "WHERE " + (eventIds != null ? "event_id IN (:ids) " : "event_id IS NOT NULL ") +
+                "AND timestamp BETWEEN :start AND :end " +
+                "GROUP BY event_id " +
+                "ORDER BY event_id";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("start", start)
+                .bind("end", end);
+        if (eventIds != null) {
+            spec = spec.bind("ids", eventIds);
+        }
+
+        return spec.map((row, metadata) -> new long[]{row.get("event_id", Long.class), row.get("hits", Long.class)})
+                .all()
+                .collectList()
+                .map(rows -> {
+                    long[] ids = new long[rows.size()];
+                    long[] hits = new long[rows.size()];
+                    for (int i = 0; i < rows.size(); i++) {
+                        ids[i] = rows.get(i)[0];
+                        hits[i] = rows.get(i)[1];
+                    }
+                    return new EventViewStats(ids, hits);
+                });
+    }
+
+    private record RangeRow(String app, String uri, long[] hits) {
+    }
+}
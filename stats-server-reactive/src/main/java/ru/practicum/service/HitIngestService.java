@@ -0,0 +1,140 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.repository.ReactiveStatsRepository;
+import ru.practicum.statsdto.EndpointHit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Приём хитов с группировкой в пачки.
+ * Каждый хит ждёт в ограниченной очереди, пачка пишется в базу одним запросом,
+ * после чего ответ на /hit завершается. Переполнение очереди означает, что база не успевает,
+ * и клиент сразу получает 503 вместо бесконечного роста памяти.
+ * Если конвейер всё же завершится ошибкой, он пересоздаётся с новой очередью,
+ * а хиты, оставшиеся в старой, получают ошибку вместо вечного ожидания.
+ */
+@Slf4j
+@Service
+public class HitIngestService {
+
+    private final ReactiveStatsRepository statsRepository;
+    private final int batchSize;
+    private final Duration batchTimeout;
+    private final int queueCapacity;
+    private final Object lock = new Object();
+    private Sinks.Many<PendingHit> sink;
+    private Disposable subscription;
+    private boolean stopped;
+    private final Scheduler batcher = Schedulers.newSingle("hit-ingest");
+
+    public HitIngestService(ReactiveStatsRepository statsRepository,
+                            @Value("${stats.ingest.batch-size:500}") int batchSize,
+                            @Value("${stats.ingest.batch-timeout-ms:20}") long batchTimeoutMs,
+                            @Value("${stats.ingest.queue-capacity:10000}") int queueCapacity) {
+        this.statsRepository = statsRepository;
+        this.batchSize = batchSize;
+        this.batchTimeout = Duration.ofMillis(batchTimeoutMs);
+        this.queueCapacity = queueCapacity;
+    }
+
+    @PostConstruct
+    public void start() {
+        synchronized (lock) {
+            if (stopped) {
+                return;
+            }
+            Sinks.Many<PendingHit> current = Sinks.many().unicast()
+                    .onBackpressureBuffer(new ArrayBlockingQueue<>(queueCapacity));
+            sink = current;
+            // Справедливый bufferTimeout запрашивает у очереди не больше, чем вмещает пачка,
+            // а concatMap держит в работе одну пачку: следующая начнёт собираться, когда база примет текущую.
+            // Хиты, таймер и завершение записи обрабатываются в одном потоке batcher: при гонке таймера
+            // с запросом следующей пачки из потока драйвера базы справедливый bufferTimeout терял последнюю пачку
+            subscription = current.asFlux()
+                    .publishOn(batcher, batchSize)
+                    .bufferTimeout(batchSize, batchTimeout, batcher, true)
+                    .concatMap(batch -> writeBatch(batch).publishOn(batcher), 1)
+                    .doOnDiscard(PendingHit.class, HitIngestService::reject)
+                    .subscribe(null, error -> restart(current, error));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+            sink.tryEmitComplete();
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            batcher.dispose();
+        }
+    }
+
+    public Mono<Void> submit(EndpointHit endpointHit) {
+        if (endpointHit.getTimestamp() == null) {
+            endpointHit.setTimestamp(LocalDateTime.now());
+        }
+        PendingHit pending = new PendingHit(endpointHit, Sinks.one());
+
+        Sinks.EmitResult result;
+        synchronized (lock) {
+            result = sink.tryEmitNext(pending);
+        }
+        if (result.isFailure()) {
+            log.warn("Hit rejected, ingest queue is not accepting: {}", result);
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingest queue is full"));
+        }
+        return pending.done().asMono();
+    }
+
+    // Хиты из очереди и недописанной пачки старого конвейера уже получили ошибку через doOnDiscard и doOnCancel
+    private void restart(Sinks.Many<PendingHit> failed, Throwable error) {
+        log.error("Ingest pipeline failed, restarting: {}", error.getMessage(), error);
+        synchronized (lock) {
+            if (sink == failed) {
+                start();
+            }
+        }
+    }
+
+    private static void reject(PendingHit pending) {
+        pending.done().tryEmitError(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingest pipeline restarted"));
+    }
+
+    private Mono<Void> writeBatch(List<PendingHit> batch) {
+        List<EndpointHit> hits = batch.stream().map(PendingHit::hit).toList();
+        // defer: исключение при подготовке запроса обрабатывается как ошибка пачки и не обрывает конвейер
+        return Mono.defer(() -> statsRepository.saveAll(hits))
+                .doOnNext(saved -> {
+                    log.debug("Saved batch of {} hits", saved);
+                    batch.forEach(pending -> pending.done().tryEmitEmpty());
+                })
+                .onErrorResume(e -> {
+                    log.error("Error saving batch of {} hits: {}", batch.size(), e.getMessage(), e);
+                    batch.forEach(pending -> pending.done().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .doOnCancel(() -> batch.forEach(HitIngestService::reject))
+                .then();
+    }
+
+    private record PendingHit(EndpointHit hit, Sinks.One<Void> done) {
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.repository.ReactiveStatsRepository;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeBucket;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveStatsService {
+
+    private final ReactiveStatsRepository statsRepository;
+
+    public Flux<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+        return statsRepository.getStats(start, end, uris, Boolean.TRUE.equals(unique));
+    }
+
+    public Flux<ViewStatsCombined> getCombinedStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return statsRepository.getCombinedStats(start, end, uris);
+    }
+
+    public Mono<List<RangeViewStats>> getStatsForRanges(List<TimeRange> ranges, List<String> uris, Boolean unique) {
+        return statsRepository.getStatsForRanges(ranges, uris, Boolean.TRUE.equals(unique))
+                .map(stats -> {
+                    List<RangeViewStats> result = new ArrayList<>(ranges.size());
+                    for (int i = 0; i < ranges.size(); i++) {
+                        result.add(RangeViewStats.builder()
+                                .start(ranges.get(i).getStart())
+                                .end(ranges.get(i).getEnd())
+                                .stats(stats.get(i))
+                                .build());
+                    }
+                    return result;
+                });
+    }
+
+    public Flux<ViewStatsBucket> getTimeSeries(LocalDateTime start, LocalDateTime end,
+                                               List<String> uris, TimeBucket bucket, int limit) {
+        return statsRepository.getTimeSeries(start, end, uris, bucket, limit);
+    }
+
+    public Mono<EventViewStats> getEventViews(long[] eventIds, LocalDateTime start, LocalDateTime end, Boolean unique) {
+        if (eventIds != null && eventIds.length == 0) {
+            return Mono.just(EventViewStats.empty());
+        }
+        List<Long> ids = eventIds != null ? Arrays.stream(eventIds).boxed().toList() : null;
+        return statsRepository.getEventViews(ids, start, end, Boolean.TRUE.equals(unique));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.statsdto.EndpointHit;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Дымовой тест приёма хитов: под параллельным потоком POST /hit каждый запрос получает 201
+ * и каждый хит оказывается в базе, несмотря на запись пачками. Пропускная способность
+ * здесь не замеряется. Объём нагрузки задаётся свойствами loadtest.hits и loadtest.clients.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.ru.practicum=WARN")
+@ActiveProfiles("test")
+class IngestStoresEveryHitTest {
+
+    private static final int HITS = Integer.getInteger("loadtest.hits", 5000);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 200);
+    private static final String APP = "ingest-smoke";
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void storesEveryHitUnderLoad() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/hit");
+        AtomicInteger next = new AtomicInteger();
+        List<Integer> failures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    List<Integer> statuses = new ArrayList<>();
+                    for (int n = next.getAndIncrement(); n < HITS; n = next.getAndIncrement()) {
+                        try {
+                            restTemplate.postForEntity(uri, hit(n), Void.class);
+                        } catch (RestClientResponseException e) {
+                            statuses.add(e.getStatusCode().value());
+                        }
+                    }
+                    return statuses;
+                }));
+            }
+            for (Future<List<Integer>> result : results) {
+                failures.addAll(result.get());
+            }
+        }
+        assertThat(failures).isEmpty();
+
+        // Ответ 201 приходит после записи, поэтому все хиты уже в базе
+        Long stored = databaseClient.sql("SELECT COUNT(*) FROM hits WHERE app = :app")
+                .bind("app", APP)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+        assertThat(stored).isEqualTo(HITS);
+    }
+
+    private static EndpointHit hit(int n) {
+        return EndpointHit.builder()
+                .app(APP)
+                .uri("/events/" + (n % 100))
+                .ip("10.0." + (n % 250) + "." + (n % 7))
+                .timestamp(TIMESTAMP)
+                .hitKey(UUID.randomUUID().toString())
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.EventViewStats;
+import ru.practicum.statsdto.RangeStatsRequest;
+import ru.practicum.statsdto.RangeViewStats;
+import ru.practicum.statsdto.TimeRange;
+import ru.practicum.statsdto.ViewStats;
+import ru.practicum.statsdto.ViewStatsBucket;
+import ru.practicum.statsdto.ViewStatsCombined;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Запросы статистики реактивной сборки отвечают так же, как stats-server: HttpStatsClient
+ * должен работать с любой из двух сборок.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveStatsControllerTest {
+
+    // Отдельный год, чтобы не пересекаться с хитами других тестов в той же базе
+    private static final LocalDateTime BASE = LocalDateTime.of(2031, 3, 1, 10, 0);
+    private static final String START = "2031-03-01 00:00:00";
+    private static final String END = "2031-03-01 23:59:59";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    void saveHits() {
+        webTestClient.post().uri("/hits")
+                .bodyValue(List.of(
+                        hit("/events/1", "10.0.0.1", BASE),
+                        hit("/events/1", "10.0.0.1", BASE.plusMinutes(10)),
+                        hit("/events/1", "10.0.0.2", BASE.plusHours(2)),
+                        hit("/events/2", "10.0.0.1", BASE.plusHours(2)),
+                        hit("/about", "10.0.0.3", BASE)))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void stats() {
+        List<ViewStats> stats = webTestClient.get()
+                .uri("/stats?start={start}&end={end}&unique=true", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStats.class)
+                .returnResult().getResponseBody();
+
+        // Порядок - по убыванию числа просмотров; при равенстве порядок не определён
+        assertThat(stats.get(0)).isEqualTo(new ViewStats("ewm-main-service", "/events/1", 2L));
+        assertThat(stats).containsExactlyInAnyOrder(
+                new ViewStats("ewm-main-service", "/events/1", 2L),
+                new ViewStats("ewm-main-service", "/events/2", 1L),
+                new ViewStats("ewm-main-service", "/about", 1L));
+    }
+
+    @Test
+    void combinedStats() {
+        List<ViewStatsCombined> stats = webTestClient.get()
+                .uri("/stats/combined?start={start}&end={end}&uris=/events/1", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStatsCombined.class)
+                .returnResult().getResponseBody();
+
+        assertThat(stats).containsExactly(new ViewStatsCombined("ewm-main-service", "/events/1", 3L, 2L));
+    }
+
+    @Test
+    void statsForRanges() {
+        RangeStatsRequest request = RangeStatsRequest.builder()
+                .ranges(List.of(
+                        new TimeRange(BASE, BASE.plusHours(1)),
+                        new TimeRange(BASE.plusHours(1), BASE.plusHours(3))))
+                .uris(List.of("/events/1", "/events/2"))
+                .unique(false)
+                .build();
+
+        List<RangeViewStats> stats = webTestClient.post().uri("/stats/ranges")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RangeViewStats.class)
+                .returnResult().getResponseBody();
+
+        assertThat(stats).hasSize(2);
+        assertThat(stats.get(0).getStats()).containsExactly(new ViewStats("ewm-main-service", "/events/1", 2L));
+        assertThat(stats.get(1).getStats()).containsExactlyInAnyOrder(
+                new ViewStats("ewm-main-service", "/events/1", 1L),
+                new ViewStats("ewm-main-service", "/events/2", 1L));
+    }
+
+    @Test
+    void rangesAreValidated() {
+        webTestClient.post().uri("/stats/ranges")
+                .bodyValue(RangeStatsRequest.builder()
+                        .ranges(List.of(new TimeRange(BASE.plusHours(1), BASE)))
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void timeSeries() {
+        List<ViewStatsBucket> series = webTestClient.get()
+                .uri("/stats/timeseries?start={start}&end={end}&uris=/events/1&bucket=HOUR", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStatsBucket.class)
+                .returnResult().getResponseBody();
+
+        assertThat(series).containsExactly(
+                new ViewStatsBucket("ewm-main-service", "/events/1", BASE, 2L, 1L),
+                new ViewStatsBucket("ewm-main-service", "/events/1", BASE.plusHours(2), 1L, 1L));
+    }
+
+    @Test
+    void timeSeriesRejectsTooManyBuckets() {
+        webTestClient.get()
+                .uri("/stats/timeseries?start=2031-01-01 00:00:00&end=2031-12-31 00:00:00&bucket=MINUTE")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void eventViews() {
+        EventViewStats views = webTestClient.get()
+                .uri("/stats/events?ids=1,2,3&start={start}&end={end}", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventViewStats.class)
+                .returnResult().getResponseBody();
+
+        assertThat(views.getEventIds()).containsExactly(1L, 2L);
+        assertThat(views.getHits()).containsExactly(3L, 1L);
+
+        EventViewStats unique = webTestClient.get()
+                .uri("/stats/events?start={start}&end={end}&unique=true", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventViewStats.class)
+                .returnResult().getResponseBody();
+
+        assertThat(unique.get(1)).isEqualTo(2);
+        assertThat(unique.get(2)).isEqualTo(1);
+    }
+
+    private static EndpointHit hit(String uri, String ip, LocalDateTime timestamp) {
+        return EndpointHit.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -1,42 +0,0 @@
-package ru.practicum.repository;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import ru.practicum.model.EndpointHitEntity;
-import ru.practicum.statsdto.ViewStats;
-
-import java.time.LocalDateTime;
-import java.util.List;
-
-public interface StatsRepository extends JpaRepository<EndpointHitEntity, Long> {
-
-    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(h.id)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "AND h.uri IN ?3 " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(h.id) DESC")
-    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris);
-
-    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "AND h.uri IN ?3 " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<ViewStats> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris);
-
-    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(h.id)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(h.id) DESC")
-    List<ViewStats> getStatsWithoutUris(LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT new ru.practicum.statsdto.ViewStats(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
-            "FROM EndpointHitEntity h " +
-            "WHERE h.timestamp BETWEEN ?1 AND ?2 " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<ViewStats> getUniqueStatsWithoutUris(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
@@ -1,13 +0,0 @@
-package ru.practicum.service;
-
-import ru.practicum.statsdto.EndpointHit;
-import ru.practicum.statsdto.ViewStats;
-
-import java.time.LocalDateTime;
-import java.util.List;
-
-public interface StatsService {
-    void saveHit(EndpointHit endpointHit);
-
-    List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
-}
\ No newline at end of file
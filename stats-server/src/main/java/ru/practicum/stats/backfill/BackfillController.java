@@ -0,0 +1,40 @@
+package ru.practicum.stats.backfill;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    // Загрузка идёт в фоне: ответ 202 с начальным состоянием, ход загрузки - GET /admin/backfill
+    @PostMapping("/admin/backfill")
+    public ResponseEntity<BackfillResult> backfill(@RequestBody BackfillRequest request) {
+        log.info("Backfill requested: file={}, format={}, fromOffset={}",
+                request.getFile(), request.getFormat(), request.getFromOffset());
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillService.start(request));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid backfill request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("Backfill rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/admin/backfill")
+    public ResponseEntity<BackfillResult> status() {
+        return ResponseEntity.of(backfillService.status());
+    }
+}
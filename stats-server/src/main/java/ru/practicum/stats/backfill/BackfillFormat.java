@@ -0,0 +1,17 @@
+package ru.practicum.stats.backfill;
+
+/**
+ * Формат файла с историческими хитами.
+ * NDJSON - по одному объекту EndpointHit в строке.
+ * CSV - строки app,uri,ip,timestamp[,hitKey], необязательная строка заголовка. Поля с запятыми
+ * заключаются в двойные кавычки (RFC 4180); перевод строки внутри поля не поддерживается,
+ * потому что файл делится на куски по строкам.
+ */
+public enum BackfillFormat {
+    NDJSON,
+    CSV;
+
+    public static BackfillFormat byFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+}
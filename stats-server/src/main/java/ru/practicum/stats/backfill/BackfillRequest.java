@@ -0,0 +1,18 @@
+package ru.practicum.stats.backfill;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillRequest {
+    // Путь к файлу относительно каталога stats.backfill.dir
+    private String file;
+
+    // По умолчанию определяется по расширению файла
+    private BackfillFormat format;
+
+    // Смещение в байтах, с которого начать; по умолчанию - сохранённая контрольная точка
+    private Long fromOffset;
+}
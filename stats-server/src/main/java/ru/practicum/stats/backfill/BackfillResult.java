@@ -0,0 +1,25 @@
+package ru.practicum.stats.backfill;
+
+import lombok.*;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillResult {
+    private String file;
+    private BackfillFormat format;
+    private BackfillState state;
+    // Причина остановки, если state = FAILED
+    private String error;
+    private long startOffset;
+    private long endOffset;
+    private long fileSize;
+    private long lines;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+    private long hitsPerSecond;
+    private double megabytesPerSecond;
+}
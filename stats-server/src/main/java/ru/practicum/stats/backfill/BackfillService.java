@@ -0,0 +1,415 @@
+package ru.practicum.stats.backfill;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.repository.StatsRepository;
+import ru.practicum.statsdto.EndpointHit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Загрузка исторических хитов из файлов NDJSON или CSV в обход POST /hit.
+ * Файл читается кусками через отображение в память, строки куска разбираются параллельно,
+ * а запись идёт пакетными вставками. После каждого куска сохраняется контрольная точка
+ * (смещение в байтах в файле рядом с исходным), так что прерванную загрузку можно продолжить.
+ * Хиты без hitKey получают ключ из имени файла и смещения строки, поэтому повторная загрузка
+ * того же куска не создаёт дубликатов. Загрузка идёт в отдельном потоке, одна за раз;
+ * её ход доступен через {@link #status()}.
+ */
+@Slf4j
+@Service
+public class BackfillService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CHECKPOINT_SUFFIX = ".offset";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_LOGGED_ERRORS = 10;
+
+    private final StatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path baseDir;
+    private final long chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<BackfillResult> current = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BackfillService(StatsRepository statsRepository,
+                           TransactionTemplate transactionTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${stats.backfill.dir:backfill}") String baseDir,
+                           @Value("${stats.backfill.chunk-size-mb:8}") int chunkSizeMb) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+        this.chunkSize = chunkSizeMb * 1024L * 1024L;
+    }
+
+    /**
+     * Проверяет запрос и запускает загрузку в фоновом потоке. Возвращает начальное состояние задачи,
+     * дальнейший ход загрузки отдаёт {@link #status()}.
+     */
+    public BackfillResult start(BackfillRequest request) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Backfill is already running");
+        }
+        try {
+            Job job = prepare(request);
+            BackfillResult result = BackfillResult.builder()
+                    .file(request.getFile())
+                    .format(job.format())
+                    .state(BackfillState.RUNNING)
+                    .startOffset(job.startOffset())
+                    .endOffset(job.startOffset())
+                    .fileSize(job.size())
+                    .build();
+            BackfillResult started = result.toBuilder().build();
+            current.set(started);
+            executor.execute(() -> execute(job, result));
+            return started;
+        } catch (IOException e) {
+            running.set(false);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Состояние текущей или последней загрузки; пусто, если загрузок с запуска сервера не было.
+     */
+    public Optional<BackfillResult> status() {
+        return Optional.ofNullable(current.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Job prepare(BackfillRequest request) throws IOException {
+        Path file = resolve(request.getFile());
+        String fileName = file.getFileName().toString();
+        BackfillFormat format = request.getFormat() != null
+                ? request.getFormat()
+                : BackfillFormat.byFileName(fileName);
+        Path checkpoint = file.resolveSibling(fileName + CHECKPOINT_SUFFIX);
+        long startOffset = request.getFromOffset() != null ? request.getFromOffset() : readCheckpoint(checkpoint);
+        long size = Files.size(file);
+        if (startOffset < 0 || startOffset > size) {
+            throw new IllegalArgumentException("Offset " + startOffset + " is outside of file of " + size + " bytes");
+        }
+        return new Job(file, checkpoint, fileName, format, startOffset, size);
+    }
+
+    private void execute(Job job, BackfillResult result) {
+        long startedAt = System.nanoTime();
+        try {
+            run(job, result, startedAt);
+            result.setState(BackfillState.FINISHED);
+            publish(result, startedAt);
+            log.info("Backfill of {} finished: {}", job.fileName(), result);
+        } catch (Exception e) {
+            result.setState(BackfillState.FAILED);
+            result.setError(e.getMessage());
+            publish(result, startedAt);
+            log.error("Backfill of {} failed at offset {}", job.fileName(), result.getEndOffset(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void run(Job job, BackfillResult result, long startedAt) throws IOException {
+        AtomicInteger loggedErrors = new AtomicInteger();
+
+        try (FileChannel channel = FileChannel.open(job.file(), StandardOpenOption.READ)) {
+            // Файл мог измениться после проверки запроса
+            long size = channel.size();
+            if (job.startOffset() > size) {
+                throw new IllegalStateException("File was truncated to " + size + " bytes");
+            }
+            result.setFileSize(size);
+            log.info("Backfill of {} ({}) started from offset {} of {}", job.file(), job.format(), job.startOffset(), size);
+
+            long position = job.startOffset();
+            while (position < size) {
+                long length = Math.min(chunkSize, size - position);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                // Кусок обрезается по последнему переводу строки, остаток войдёт в следующий
+                int end = (int) length;
+                if (position + length < size) {
+                    end = lastNewline(chunk, end) + 1;
+                    if (end == 0) {
+                        throw new IllegalArgumentException("Line at offset " + position
+                                + " is longer than backfill chunk of " + chunkSize + " bytes");
+                    }
+                }
+
+                List<ParsedPart> parts = parse(chunk, end, position, job.fileName(), job.format(), loggedErrors);
+                List<EndpointHit> hits = new ArrayList<>();
+                for (ParsedPart part : parts) {
+                    hits.addAll(part.hits);
+                    result.setLines(result.getLines() + part.lines);
+                    result.setInvalid(result.getInvalid() + part.invalid);
+                }
+
+                int inserted = insert(hits);
+                result.setInserted(result.getInserted() + inserted);
+                result.setDuplicates(result.getDuplicates() + hits.size() - inserted);
+
+                position += end;
+                writeCheckpoint(job.checkpoint(), position);
+                result.setEndOffset(position);
+                publish(result, startedAt);
+
+                log.info("Backfill of {}: offset {} of {}, {} hits inserted, {} hits/s",
+                        job.fileName(), position, size, result.getInserted(), result.getHitsPerSecond());
+            }
+        }
+    }
+
+    // Снимок состояния для status(): сам result меняет только поток загрузки
+    private void publish(BackfillResult result, long startedAt) {
+        long elapsed = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        result.setElapsedMillis(elapsed);
+        result.setHitsPerSecond(result.getLines() * 1000 / elapsed);
+        result.setMegabytesPerSecond((result.getEndOffset() - result.getStartOffset()) / 1048.576 / elapsed);
+        current.set(result.toBuilder().build());
+    }
+
+    private Path resolve(String file) {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("Backfill file is not specified");
+        }
+        Path path = baseDir.resolve(file).normalize();
+        if (!path.startsWith(baseDir)) {
+            throw new IllegalArgumentException("Backfill file must be inside " + baseDir);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Backfill file not found: " + file);
+        }
+        return path;
+    }
+
+    /**
+     * Делит кусок на части по числу ядер (границы - переводы строк) и разбирает их параллельно.
+     * Порядок частей сохраняется.
+     */
+    private List<ParsedPart> parse(ByteBuffer chunk, int end, long chunkOffset, String fileName,
+                                   BackfillFormat format, AtomicInteger loggedErrors) {
+        int partsCount = Runtime.getRuntime().availableProcessors();
+        int partSize = Math.max(1, end / partsCount);
+
+        List<int[]> bounds = new ArrayList<>(partsCount);
+        int from = 0;
+        while (from < end) {
+            int to = Math.min(end, from + partSize);
+            while (to < end && chunk.get(to - 1) != '\n') {
+                to++;
+            }
+            bounds.add(new int[]{from, to});
+            from = to;
+        }
+
+        return bounds.parallelStream()
+                .map(bound -> parsePart(chunk.slice(bound[0], bound[1] - bound[0]),
+                        chunkOffset + bound[0], fileName, format, loggedErrors))
+                .toList();
+    }
+
+    private ParsedPart parsePart(ByteBuffer part, long partOffset, String fileName,
+                                 BackfillFormat format, AtomicInteger loggedErrors) {
+        ParsedPart result = new ParsedPart();
+        int lineStart = 0;
+        int limit = part.limit();
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && part.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && part.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            long lineOffset = partOffset + lineStart;
+
+            if (contentEnd > lineStart) {
+                byte[] line = new byte[contentEnd - lineStart];
+                part.get(lineStart, line);
+                if (!(format == BackfillFormat.CSV && lineOffset == 0 && isCsvHeader(line))) {
+                    result.lines++;
+                    try {
+                        EndpointHit hit = format == BackfillFormat.CSV ? parseCsv(line) : parseJson(line);
+                        if (hit.getHitKey() == null) {
+                            hit.setHitKey(UUID.nameUUIDFromBytes(
+                                    (fileName + ":" + lineOffset).getBytes(StandardCharsets.UTF_8)).toString());
+                        }
+                        result.hits.add(hit);
+                    } catch (Exception e) {
+                        result.invalid++;
+                        if (loggedErrors.incrementAndGet() <= MAX_LOGGED_ERRORS) {
+                            log.warn("Invalid backfill line at offset {}: {}", lineOffset, e.getMessage());
+                        }
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private EndpointHit parseJson(byte[] line) throws IOException {
+        EndpointHit hit = objectMapper.readValue(line, EndpointHit.class);
+        validate(hit);
+        return hit;
+    }
+
+    private EndpointHit parseCsv(byte[] line) {
+        List<String> fields = splitCsv(new String(line, StandardCharsets.UTF_8));
+        if (fields.size() < 4 || fields.size() > 5) {
+            throw new IllegalArgumentException("expected 4 or 5 fields, got " + fields.size());
+        }
+        EndpointHit hit = EndpointHit.builder()
+                .app(fields.get(0))
+                .uri(fields.get(1))
+                .ip(fields.get(2))
+                .timestamp(LocalDateTime.parse(fields.get(3), FORMATTER))
+                .hitKey(fields.size() == 5 && !fields.get(4).isEmpty() ? fields.get(4) : null)
+                .build();
+        validate(hit);
+        return hit;
+    }
+
+    /**
+     * Разбивает строку CSV на поля по RFC 4180: поле в двойных кавычках может содержать запятые,
+     * кавычка внутри него записывается двумя кавычками. Пробелы вокруг полей без кавычек отбрасываются.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("unexpected character after quoted field at position " + i);
+                }
+                fields.add(field.toString());
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? line.length() : comma;
+                fields.add(line.substring(i, end).trim());
+                i = end;
+            }
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    private static void validate(EndpointHit hit) {
+        if (hit.getApp() == null || hit.getApp().isEmpty()
+                || hit.getUri() == null || hit.getUri().isEmpty()
+                || hit.getIp() == null || hit.getIp().isEmpty()
+                || hit.getTimestamp() == null) {
+            throw new IllegalArgumentException("app, uri, ip and timestamp are required");
+        }
+    }
+
+    private static boolean isCsvHeader(byte[] line) {
+        return new String(line, StandardCharsets.UTF_8).trim().toLowerCase().startsWith("app,");
+    }
+
+    private int insert(List<EndpointHit> hits) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (int i = 0; i < hits.size(); i += INSERT_BATCH_SIZE) {
+                count += statsRepository.insertHits(hits.subList(i, Math.min(hits.size(), i + INSERT_BATCH_SIZE)));
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private static int lastNewline(ByteBuffer chunk, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (chunk.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint).trim());
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long offset) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset));
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record Job(Path file, Path checkpoint, String fileName, BackfillFormat format,
+                       long startOffset, long size) {
+    }
+
+    private static class ParsedPart {
+        private final List<EndpointHit> hits = new ArrayList<>();
+        private long lines;
+        private long invalid;
+    }
+}
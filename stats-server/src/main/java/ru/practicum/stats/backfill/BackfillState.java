@@ -0,0 +1,7 @@
+package ru.practicum.stats.backfill;
+
+public enum BackfillState {
+    RUNNING,
+    FINISHED,
+    FAILED
+}
@@ -0,0 +1,73 @@
+package ru.practicum.stats.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Разделение нагрузки между основной базой и репликой для чтения.
+ * Включается, если задан stats.datasource.read.url. У каждой базы свой пул Hikari:
+ * spring.datasource.hikari.* для основной и stats.datasource.read.hikari.* для реплики.
+ * Соединение выдаётся лениво, при первом запросе: к этому моменту транзакция уже помечена
+ * как read-only, и LazyConnectionDataSourceProxy берёт соединение из пула реплики.
+ * Запись (/hit, /hits, backfill) всегда идёт в основную базу.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "stats.datasource.read.url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties writeDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(
+            @Qualifier("writeDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("stats-write");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("stats.datasource.read")
+    public DataSourceProperties readDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("stats.datasource.read.hikari")
+    public HikariDataSource readDataSource(@Qualifier("readDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("stats-read");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        log.info("Stats read queries are routed to a separate read datasource");
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+}
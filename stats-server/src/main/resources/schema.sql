@@ -1,7 +0,0 @@
-CREATE TABLE IF NOT EXISTS hits (
-                                             id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-                                             app VARCHAR(255) NOT NULL,
-    uri VARCHAR(512) NOT NULL,
-    ip VARCHAR(45) NOT NULL,
-    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
-    );
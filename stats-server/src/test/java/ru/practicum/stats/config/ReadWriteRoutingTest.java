@@ -0,0 +1,87 @@
+package ru.practicum.stats.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.stats.service.StatsService;
+import ru.practicum.statsdto.EndpointHit;
+import ru.practicum.statsdto.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Маршрутизация между основной базой и репликой на двух базах H2: запись и запросы, чей интервал
+ * заканчивается в пределах max-staleness, идут в основную базу, более старые - в реплику.
+ * Реплика заполняется отдельно и содержит другие хиты, поэтому по ответу видно, какая база его дала.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "stats.datasource.read.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "stats.datasource.read.username=sa",
+        "stats.datasource.read.password=",
+        "stats.datasource.read.max-staleness=1h",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.orm.jpa=WARN",
+        "logging.level.org.springframework.transaction=WARN"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:stats-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:stats-replica;DB_CLOSE_DELAY=-1";
+
+    private static final String URI = "/events/1";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private StatsService statsService;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/stats/schema.sql"),
+                new ClassPathResource("db/stats/schema-h2.sql"))
+                .execute(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    @Test
+    void writesAndFreshReadsGoToPrimaryOlderReadsToReplica() {
+        LocalDateTime now = LocalDateTime.now();
+        replica.update("DELETE FROM hits");
+        replica.update("INSERT INTO hits (app, uri, ip, timestamp) VALUES ('replica', ?, '10.0.0.1', ?)",
+                URI, now.minusDays(1));
+
+        statsService.saveHit(EndpointHit.builder()
+                .app("primary")
+                .uri(URI)
+                .ip("10.0.0.2")
+                .timestamp(now.minusDays(1))
+                .build());
+
+        assertThat(primary.queryForList("SELECT app FROM hits WHERE uri = ?", String.class, URI))
+                .containsExactly("primary");
+        assertThat(replica.queryForList("SELECT app FROM hits WHERE uri = ?", String.class, URI))
+                .containsExactly("replica");
+
+        // Интервал заканчивается сейчас - в пределах max-staleness, реплика могла отстать
+        assertThat(apps(statsService.getStats(EPOCH, now, List.of(URI), false))).containsExactly("primary");
+        // Интервал закончился раньше now - max-staleness
+        assertThat(apps(statsService.getStats(EPOCH, now.minusHours(2), List.of(URI), false))).containsExactly("replica");
+    }
+
+    private static List<String> apps(List<ViewStats> stats) {
+        return stats.stream().map(ViewStats::getApp).toList();
+    }
+}